@@ -0,0 +1,58 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import com.metaring.framework.Core;
+
+final class BenchmarkPayloads {
+
+    static {
+        try {
+            Class.forName(Core.class.getName());
+        }
+        catch (Exception e) {
+        }
+    }
+
+    private BenchmarkPayloads() {
+    }
+
+    static String result(int elements) {
+        return array(elements, false);
+    }
+
+    static String expectedOutput(int elements) {
+        return array(elements, true);
+    }
+
+    private static String array(int elements, boolean wildcards) {
+        StringBuilder json = new StringBuilder(elements * 96 + 2).append('[');
+        for (int i = 0; i < elements; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i);
+            json.append(",\"name\":").append(wildcards ? SpecialTypeEnum.SOME.print() : "\"name " + i + "\"");
+            json.append(",\"active\":").append(i % 2 == 0);
+            json.append(",\"score\":").append(wildcards ? SpecialTypeEnum.ANY.print() : String.valueOf(i * 0.5));
+            json.append(",\"tags\":").append(wildcards && i % 3 == 0 ? SpecialTypeEnum.ARRAY_MORE_THAN_AN_ELEMENT.print() : "[\"alpha\",\"beta\"]");
+            json.append('}');
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.metaring.framework.Tools;
+import com.metaring.framework.type.DataRepresentation;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpectedOutputMatcherBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    public int elements;
+
+    private String expectedOutput;
+    private String resultJson;
+    private DataRepresentation result;
+    private ExpectedOutputMatcher matcher;
+
+    @Setup
+    public void setup() {
+        expectedOutput = BenchmarkPayloads.expectedOutput(elements);
+        resultJson = BenchmarkPayloads.result(elements);
+        result = Tools.FACTORY_DATA_REPRESENTATION.fromJson(resultJson);
+        matcher = ExpectedOutputMatcher.compile(expectedOutput);
+    }
+
+    @Benchmark
+    public List<String> verifyCompiled() {
+        return matcher.verify(result);
+    }
+
+    @Benchmark
+    public List<String> compileAndVerify() {
+        return ExpectedOutputMatcher.compile(expectedOutput).verify(result);
+    }
+
+    @Benchmark
+    public List<String> parseCompileAndVerify() {
+        return ExpectedOutputMatcher.compile(expectedOutput).verify(Tools.FACTORY_DATA_REPRESENTATION.fromJson(resultJson));
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.metaring.framework.Tools;
+import com.metaring.framework.type.DataRepresentation;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InJvmRoundTripBenchmark {
+
+    private static final String FUNCTIONALITY = "com.metaring.framework.test.benchmark.echo";
+
+    @Param({ "10", "1000" })
+    public int elements;
+
+    private DataRepresentation param;
+    private ExpectedOutputMatcher matcher;
+
+    @Setup
+    public void setup() {
+        String result = BenchmarkPayloads.result(elements);
+        param = Tools.FACTORY_DATA_REPRESENTATION.fromJson(result);
+        matcher = ExpectedOutputMatcher.compile(BenchmarkPayloads.expectedOutput(elements));
+        InJvmFunctionalityDispatcher.register(FUNCTIONALITY, input -> input);
+    }
+
+    @TearDown
+    public void tearDown() {
+        InJvmFunctionalityDispatcher.unregister(FUNCTIONALITY);
+    }
+
+    @Benchmark
+    public List<String> callAndVerify() {
+        return InJvmFunctionalityDispatcher.call(FUNCTIONALITY, param).thenApply(matcher::verify).join();
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.metaring.framework.Tools;
+import com.metaring.framework.rpc.RpcFunctionalitiesManager;
+import com.metaring.framework.rpc.RpcRequest;
+import com.metaring.framework.type.DataRepresentation;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RpcRoundTripBenchmark {
+
+    static final String NO_RPC_JSON_STUB = "no-rpc-json-stub";
+
+    private static final String STUB_FUNCTIONALITY = "com.metaring.framework.test.benchmark.rpc.echo";
+
+    @Param(NO_RPC_JSON_STUB)
+    public String functionality;
+
+    @Param("null")
+    public String input;
+
+    private DataRepresentation param;
+    private boolean stub;
+
+    @Setup
+    public void setup() {
+        if (functionality == null || functionality.trim().isEmpty()) {
+            throw new IllegalStateException("Pass the functionality to call with -p functionality=<name>, or " + NO_RPC_JSON_STUB + " to time only the JSON round trip of an in-process stub");
+        }
+        stub = NO_RPC_JSON_STUB.equals(functionality);
+        if (stub) {
+            if ("null".equals(input)) {
+                input = BenchmarkPayloads.result(100);
+            }
+            InJvmFunctionalityDispatcher.register(STUB_FUNCTIONALITY, request -> request);
+        }
+        param = Tools.FACTORY_DATA_REPRESENTATION.fromJson(input);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (stub) {
+            InJvmFunctionalityDispatcher.unregister(STUB_FUNCTIONALITY);
+        }
+    }
+
+    @Benchmark
+    public DataRepresentation call() {
+        if (stub) {
+            return jsonStubRoundTrip();
+        }
+        return RpcFunctionalitiesManager.call(RpcRequest.create(1L, null, functionality, param)).join().getResult();
+    }
+
+    private DataRepresentation jsonStubRoundTrip() {
+        DataRepresentation received = Tools.FACTORY_DATA_REPRESENTATION.fromJson(param.toJson());
+        DataRepresentation result = InJvmFunctionalityDispatcher.call(STUB_FUNCTIONALITY, received).join();
+        return Tools.FACTORY_DATA_REPRESENTATION.fromJson(result.toJson());
+    }
+}
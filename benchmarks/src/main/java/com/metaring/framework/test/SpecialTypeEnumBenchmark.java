@@ -0,0 +1,66 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpecialTypeEnumBenchmark {
+
+    private String specialType;
+    private String plainText;
+    private String expectedOutput;
+
+    @Setup
+    public void setup() {
+        specialType = SpecialTypeEnum.ARRAY_MORE_THAN_AN_ELEMENT.print();
+        plainText = "\"a plain text value\"";
+        expectedOutput = BenchmarkPayloads.expectedOutput(100);
+    }
+
+    @Benchmark
+    public SpecialTypeEnum fromTextSpecialType() {
+        return SpecialTypeEnum.fromText(specialType);
+    }
+
+    @Benchmark
+    public SpecialTypeEnum fromTextPlainText() {
+        return SpecialTypeEnum.fromText(plainText);
+    }
+
+    @Benchmark
+    public String clean() {
+        return SpecialTypeEnum.clean(expectedOutput);
+    }
+}
@@ -19,9 +19,12 @@ package com.metaring.framework.test;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
-import java.util.function.Consumer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.junit.After;
 import org.junit.Before;
@@ -29,19 +32,31 @@ import org.junit.Test;
 
 import com.metaring.framework.Core;
 import com.metaring.framework.Tools;
-import com.metaring.framework.persistence.PersistenceFunctionalitiesManager;
-import com.metaring.framework.rpc.RpcFunctionalitiesManager;
-import com.metaring.framework.rpc.RpcRequest;
-import com.metaring.framework.rpc.RpcResponse;
 import com.metaring.framework.type.DataRepresentation;
 import com.metaring.framework.type.series.TextSeries;
 import com.metaring.framework.util.StringUtil;
 
 public abstract class AbstractFunctionalityTestCase {
 
-    private static final CoreTestsBatterySupervisor SUPERVISOR;
+    private static final CompositeTestsBatterySupervisor SUPERVISOR;
 
-    private static final String ERROR_MESSAGE_FORMAT = "Property: %s - Expecting %s - Found %s";
+    private static final FunctionalityTestBackend BACKEND;
+
+    private static final PhaseTimingsReporter TIMINGS_REPORTER = PhaseTimingsReporter.create();
+
+    private static final TestResultExporter RESULT_EXPORTER = TestResultExporter.create();
+
+    public static final String BATCH_PREAMBLE_PROPERTY = "metaring.test.preamble.batch";
+
+    private static final boolean BATCH_PREAMBLE = Boolean.getBoolean(BATCH_PREAMBLE_PROPERTY);
+
+    public static final String COMBINED_EPILOGUE_PROPERTY = "metaring.test.epilogue.combined";
+
+    private static final boolean COMBINED_EPILOGUE = Boolean.getBoolean(COMBINED_EPILOGUE_PROPERTY);
+
+    public static final String ROLLBACK_AFTER_TEST_PROPERTY = "metaring.test.rollback";
+
+    private static final boolean ROLLBACK_AFTER_TEST = Boolean.getBoolean(ROLLBACK_AFTER_TEST_PROPERTY);
 
     private Long id;
     private String name;
@@ -49,8 +64,8 @@ public abstract class AbstractFunctionalityTestCase {
     private String expectedOutput;
     private String title;
     private String description;
-    private TextSeries persistencePreambleActions;
-    private TextSeries persistenceEpilogueVerifications;
+    private List<String> persistencePreambleActions;
+    private List<String> persistenceEpilogueVerifications;
 
     static {
         try {
@@ -58,6 +73,7 @@ public abstract class AbstractFunctionalityTestCase {
         }
         catch (Exception e) {
         }
+        BACKEND = TestBackendManager.getBackend();
         SUPERVISOR = TestBatterySupervisorManager.initSupervisor();
     }
 
@@ -67,8 +83,8 @@ public abstract class AbstractFunctionalityTestCase {
         this.description = description;
         this.inputParam = inputParam;
         this.expectedOutput = expectedOutput;
-        this.persistencePreambleActions = persistencePreambleActions;
-        this.persistenceEpilogueVerifications = persistenceEpilogueVerifications;
+        this.persistencePreambleActions = PersistenceScript.statements(persistencePreambleActions);
+        this.persistenceEpilogueVerifications = PersistenceScript.statements(persistenceEpilogueVerifications);
         long idN = 0;
         Class<? extends AbstractFunctionalityTestCase> clazz = this.getClass();
         while (!clazz.getSuperclass().equals(AbstractFunctionalityTestCase.class)) {
@@ -85,6 +101,49 @@ public abstract class AbstractFunctionalityTestCase {
         this.id = idN;
     }
 
+    AbstractFunctionalityTestCase(String name, Long id, String title, String description, String inputParam, String expectedOutput, List<String> persistencePreambleActions, List<String> persistenceEpilogueVerifications) {
+        this.name = name;
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.inputParam = inputParam;
+        this.expectedOutput = expectedOutput;
+        this.persistencePreambleActions = persistencePreambleActions;
+        this.persistenceEpilogueVerifications = persistenceEpilogueVerifications;
+    }
+
+    final Long getId() {
+        return id;
+    }
+
+    final String getName() {
+        return name;
+    }
+
+    final String getInputParam() {
+        return inputParam;
+    }
+
+    String getCaseGroup() {
+        return this.getClass().getName();
+    }
+
+    final String getCaseIdentity() {
+        return TestOutcome.identity(getCaseGroup(), id);
+    }
+
+    final String getExpectedOutput() {
+        return expectedOutput;
+    }
+
+    final String getTitle() {
+        return title;
+    }
+
+    final String getDescription() {
+        return description;
+    }
+
     @Before
     public final void before() {
         if (SUPERVISOR != null) {
@@ -95,6 +154,23 @@ public abstract class AbstractFunctionalityTestCase {
                 throw new RuntimeException("Error while running Supervisor Pre Before Test", e);
             }
         }
+        FunctionalityTestFixture fixture = getFixture();
+        if (fixture != null) {
+            try {
+                TestFixtureManager.prepare(fixture, SUPERVISOR);
+            }
+            catch (Exception e) {
+                throw new RuntimeException("Error while preparing Test Case Fixture", e);
+            }
+        }
+        if (isRollbackAfterTest()) {
+            try {
+                TestFixtureManager.beginTransaction();
+            }
+            catch (Exception e) {
+                throw new RuntimeException("Error while beginning Test Case Transaction", e);
+            }
+        }
         try {
             performBeforeTest();
         }
@@ -115,29 +191,47 @@ public abstract class AbstractFunctionalityTestCase {
 
     }
 
+    protected FunctionalityTestFixture getFixture() {
+        return null;
+    }
+
+    /**
+     * Wraps the case in BEGIN / ROLLBACK sent through the Test Backend. The parallel battery executor runs such cases alone.
+     * The in-memory backend keeps them on its single connection; the framework backend sends BEGIN and ROLLBACK as separate
+     * statements that may reach different pooled connections, so there they give no isolation at all.
+     */
+    protected boolean isRollbackAfterTest() {
+        return ROLLBACK_AFTER_TEST;
+    }
+
+    protected long getCaseTimeoutMillis() {
+        return Timeouts.CASE_TIMEOUT_MILLIS;
+    }
+
+    protected long getPhaseTimeoutMillis() {
+        return Timeouts.PHASE_TIMEOUT_MILLIS;
+    }
+
+    protected boolean isResultCacheable() {
+        return FunctionalityResultCache.isCacheable(name);
+    }
+
+    protected boolean isBatchPreamble() {
+        return BATCH_PREAMBLE;
+    }
+
+    protected boolean isCombinedEpilogue() {
+        return COMBINED_EPILOGUE;
+    }
+
     @Test
     public final void test() {
-        CountDownLatch counter = new CountDownLatch(1);
-        List<String> errorMessages = new ArrayList<>();
-
-        performPreambleThenTest(counter, errorMessages);
-
-        await(counter);
-        if (errorMessages != null && !errorMessages.isEmpty()) {
-            System.err.println("\n------ ASSERTION FAILED ------");
-            System.err.println("\nFunctionality: " + name);
-            System.err.println("\nTitle: " + title);
-            System.err.println("\nDescription: " + description);
-            System.err.println("\nClass: " + this.getClass().getName());
-            System.err.println("\nErrors:");
-            for (String errorMessage : errorMessages) {
-                System.err.println("\n\t- " + errorMessage + ";");
-            }
-            System.err.println("\n-------------------------------------");
-            System.err.println("\n");
+        TestOutcome outcome = runAsync().toCompletableFuture().join();
+        if (!outcome.isSuccessful()) {
+            outcome.printErrors(System.err);
 
             StringBuilder message = new StringBuilder();
-            for (String errorMessage : errorMessages) {
+            for (String errorMessage : outcome.getErrorMessages()) {
                 message.append("\n\n- ").append(errorMessage).append(";");
             }
             assertTrue("\n" + message.toString().trim(), false);
@@ -147,116 +241,317 @@ public abstract class AbstractFunctionalityTestCase {
         }
     }
 
-    private final void performPreambleThenTest(CountDownLatch counter, List<String> errorMessages) {
-        performPreambleThenTest(counter, errorMessages, null);
+    public final CompletionStage<TestOutcome> runAsync() {
+        PhaseTimings timings = new PhaseTimings();
+        TestCancellation cancelled = new TestCancellation();
+        InFlightTest inFlightTest = InFlightTestTracker.register(this.getClass(), name, id, timings);
+        long caseTimeoutMillis = getCaseTimeoutMillis();
+        CompletableFuture<List<String>> errorMessages;
+        try {
+            errorMessages = Timeouts.within(performPreambleThenTest(timings, cancelled), caseTimeoutMillis, () -> {
+                cancelled.cancel();
+                return Timeouts.caseTimeout(timings.getCurrentPhase(), caseTimeoutMillis);
+            });
+        }
+        catch (Exception e) {
+            errorMessages = new CompletableFuture<>();
+            errorMessages.completeExceptionally(e);
+        }
+        return errorMessages.handle((result, error) -> {
+            InFlightTestTracker.deregister(inFlightTest);
+            if (cancelled.isCancelled()) {
+                cancelled.cancelPhase();
+            }
+            if (error != null) {
+                String errorMessageFormat = "Test Case execution returned the following error:\n\n%s";
+                result = Collections.singletonList(String.format(errorMessageFormat, describe(error)));
+            }
+            TestOutcome outcome = new TestOutcome(this.getClass(), getCaseGroup(), name, id, title, description, result, timings);
+            timingsRecorded(outcome);
+            TestRunIndex.recordIfEnabled(outcome, inputParam, expectedOutput);
+            return outcome;
+        });
     }
 
-    private final void performPreambleThenTest(CountDownLatch counter, List<String> errorMessages, Integer i) {
-        if (persistencePreambleActions == null || !(persistencePreambleActions.size() > 0)) {
-            performTest(counter, errorMessages);
-            return;
+    private static final void timingsRecorded(TestOutcome outcome) {
+        if (SUPERVISOR != null) {
+            try {
+                SUPERVISOR.timingsRecorded(outcome);
+            }
+            catch (Exception e) {
+                System.err.println("Exception while running Supervisor Timings Recorded:\n\n");
+                e.printStackTrace();
+            }
+        }
+        if (TIMINGS_REPORTER != null) {
+            TIMINGS_REPORTER.record(outcome);
+        }
+        if (RESULT_EXPORTER != null) {
+            RESULT_EXPORTER.record(outcome);
         }
-        if (i != null && i == persistencePreambleActions.size()) {
+    }
+
+    private final CompletableFuture<List<String>> performPreambleThenTest(PhaseTimings timings, TestCancellation cancelled) {
+        long preambleStart = System.nanoTime();
+        enterPhase(timings, TestPhase.PREAMBLE);
+        CompletableFuture<List<String>> preamble = withinPhaseTimeout(isBatchPreamble() ? performBatchPreamble(cancelled) : performPreamble(0, cancelled), TestPhase.PREAMBLE, cancelled);
+        return preamble.handle((errorMessages, error) -> {
+            exitPhase(timings, TestPhase.PREAMBLE, System.nanoTime() - preambleStart);
+            if (error != null) {
+                String errorMessageFormat = "Persistence Preamble returned the following error:\n\n%s";
+                return Collections.singletonList(String.format(errorMessageFormat, describe(error)));
+            }
+            return errorMessages;
+        }).thenCompose(errorMessages -> errorMessages.isEmpty() && !cancelled.isCancelled() ? performTest(timings, cancelled) : CompletableFuture.completedFuture(errorMessages));
+    }
+
+    private final void enterPhase(PhaseTimings timings, TestPhase phase) {
+        timings.enter(phase);
+        if (SUPERVISOR != null) {
             try {
-                performTest(counter, errorMessages);
-//                PersistenceFunctionalitiesManager.execute(PersistenceFunctionalitiesManager.COMMIT_TRANSACTION, result -> {
-//                    try {
-//                        FunctionalitiesManager.verifyAndReturnFunctionalityExecutionResult(result);
-//                        performTest(counter, errorMessages);
-//                    }
-//                    catch (Exception e) {
-//                        String errorMessageFormat = "Persistence Preamble actions commit returned the following error:\n\n%s";
-//                        errorMessages.add(String.format(errorMessageFormat, StringUtil.fromThrowableToString(e)));
-//                        counter.countDown();
-//                    }
-//                });
+                SUPERVISOR.phaseStarted(new TestCaseContext(this.getClass(), name, id, timings), phase);
             }
             catch (Exception e) {
-                String errorMessageFormat = "Persistence Preamble actions commit returned the following error:\n\n%s";
-                errorMessages.add(String.format(errorMessageFormat, StringUtil.fromThrowableToString(e)));
-                counter.countDown();
+                System.err.println("Exception while running Supervisor Phase Started:\n\n");
+                e.printStackTrace();
             }
-            return;
         }
-        if (i == null) {
-            performPreambleThenTest(counter, errorMessages, 0);
-            return;
+    }
+
+    private final void exitPhase(PhaseTimings timings, TestPhase phase, long elapsedNanos) {
+        timings.record(phase, elapsedNanos);
+        if (SUPERVISOR != null) {
+            try {
+                SUPERVISOR.phaseEnded(new TestCaseContext(this.getClass(), name, id, timings), phase, elapsedNanos);
+            }
+            catch (Exception e) {
+                System.err.println("Exception while running Supervisor Phase Ended:\n\n");
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private final <T> CompletableFuture<T> withinPhaseTimeout(CompletableFuture<T> phase, TestPhase testPhase, TestCancellation cancelled) {
+        long phaseTimeoutMillis = getPhaseTimeoutMillis();
+        return Timeouts.within(cancelled.track(phase), phaseTimeoutMillis, () -> {
+            cancelled.cancel();
+            return Timeouts.phaseTimeout(testPhase, phaseTimeoutMillis);
+        });
+    }
+
+    private static final <T> CompletableFuture<T> cancelledFuture() {
+        CompletableFuture<T> cancelled = new CompletableFuture<>();
+        cancelled.cancel(false);
+        return cancelled;
+    }
+
+    private static final String describe(Throwable error) {
+        Throwable cause = Timeouts.unwrap(error);
+        if (cause instanceof TestTimeoutException) {
+            return cause.getMessage();
+        }
+        return StringUtil.fromThrowableToString(error);
+    }
+
+    private final CompletableFuture<List<String>> performBatchPreamble(TestCancellation cancelled) {
+        if (persistencePreambleActions == null || persistencePreambleActions.size() == 0) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        if (cancelled.isCancelled()) {
+            return cancelledFuture();
+        }
+        CompletableFuture<Void> batch;
+        try {
+            batch = BACKEND.batch(persistencePreambleActions);
+        }
+        catch (Exception e) {
+            batch = new CompletableFuture<>();
+            batch.completeExceptionally(e);
+        }
+        return batch.handle((result, error) -> {
+            if (error == null) {
+                return Collections.<String>emptyList();
+            }
+            Throwable cause = Timeouts.unwrap(error);
+            if (cause instanceof PersistenceBatchException) {
+                int statementIndex = ((PersistenceBatchException) cause).getStatementIndex();
+                String errorMessageFormat = "Persistence Preamble action\n\n%s\n\nreturned the following error:\n\n%s";
+                return Collections.singletonList(String.format(errorMessageFormat, persistencePreambleActions.get(statementIndex), StringUtil.fromThrowableToString(cause.getCause())));
+            }
+            String errorMessageFormat = "Persistence Preamble batch returned the following error:\n\n%s";
+            return Collections.singletonList(String.format(errorMessageFormat, StringUtil.fromThrowableToString(cause)));
+        });
+    }
+
+    private final CompletableFuture<List<String>> performPreamble(int i, TestCancellation cancelled) {
+        if (persistencePreambleActions == null || i >= persistencePreambleActions.size()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        if (cancelled.isCancelled()) {
+            return cancelledFuture();
         }
         String preambleAction = persistencePreambleActions.get(i);
+        String errorMessageFormat = "Persistence Preamble action\n\n%s\n\nreturned the following error:\n\n%s";
         try {
-            PersistenceFunctionalitiesManager.update(preambleAction).handle((result, error) -> {
-                if(error == null) {
-                    performPreambleThenTest(counter, errorMessages, (i + 1));
-                } else {
-                    String errorMessageFormat = "Persistence Preamble action\n\n%s\n\nreturned the following error:\n\n%s";
-                    errorMessages.add(String.format(errorMessageFormat, preambleAction, StringUtil.fromThrowableToString(error)));
-                    counter.countDown();
+            return PersistenceStatement.update(BACKEND, preambleAction).handle((result, error) -> error).thenCompose(error -> {
+                if (error == null) {
+                    return performPreamble(i + 1, cancelled);
                 }
-                return null;
+                return CompletableFuture.completedFuture(Collections.singletonList(String.format(errorMessageFormat, preambleAction, StringUtil.fromThrowableToString(error))));
             });
         }
         catch (Exception e) {
-            String errorMessageFormat = "Persistence Preamble action\n\n%s\n\nreturned the following error:\n\n%s";
-            errorMessages.add(String.format(errorMessageFormat, preambleAction, StringUtil.fromThrowableToString(e)));
-            counter.countDown();
+            return CompletableFuture.completedFuture(Collections.singletonList(String.format(errorMessageFormat, preambleAction, StringUtil.fromThrowableToString(e))));
         }
     }
 
-    private final void performTest(CountDownLatch counter, List<String> errorMessages) {
-        RpcFunctionalitiesManager.call(RpcRequest.create(id, null, name, Tools.FACTORY_DATA_REPRESENTATION.fromJson(inputParam))).handle((response, error) -> {
-            assertResult(response, result -> {
-                if (result != null) {
-                    errorMessages.addAll(result);
+    private final boolean isStateless() {
+        return (persistencePreambleActions == null || persistencePreambleActions.isEmpty()) && (persistenceEpilogueVerifications == null || persistenceEpilogueVerifications.isEmpty()) && getFixture() == null && !isRollbackAfterTest();
+    }
+
+    private final CompletableFuture<List<String>> performTest(PhaseTimings timings, TestCancellation cancelled) {
+        return performCall(id, timings, isResultCacheable() && isStateless(), cancelled).thenCompose(errorMessages -> {
+            if (cancelled.isCancelled()) {
+                return CompletableFuture.completedFuture(errorMessages);
+            }
+            long epilogueStart = System.nanoTime();
+            enterPhase(timings, TestPhase.EPILOGUE);
+            CompletableFuture<List<String>> epilogue = withinPhaseTimeout(isCombinedEpilogue() ? verifyCombinedEpilogueQueries(errorMessages, cancelled) : verifyEpilogueQueries(errorMessages, 0, cancelled), TestPhase.EPILOGUE, cancelled);
+            return epilogue.handle((result, error) -> {
+                exitPhase(timings, TestPhase.EPILOGUE, System.nanoTime() - epilogueStart);
+                if (error != null) {
+                    String errorMessageFormat = "Persistence epilogue verifications returned the following error:\n\n%s";
+                    return append(errorMessages, String.format(errorMessageFormat, describe(error)));
                 }
-                counter.countDown();
+                return result;
             });
-            return null;
         });
     }
 
-    private final void assertResult(RpcResponse rpcResponse, Consumer<List<String>> consumer) {
-        String expected = expectedOutput;
-        DataRepresentation expectedJson = null;
+    final CompletableFuture<List<String>> performCall(Long requestId, PhaseTimings timings, boolean cacheable) {
+        return performCall(requestId, timings, cacheable, new TestCancellation());
+    }
+
+    private final CompletableFuture<List<String>> performCall(Long requestId, PhaseTimings timings, boolean cacheable, TestCancellation cancelled) {
+        String errorMessageFormat = "Functionality call returned the following error:\n\n%s";
+        long callStart = System.nanoTime();
+        enterPhase(timings, TestPhase.CALL);
+        CompletableFuture<DataRepresentation> call;
         try {
-            expectedJson = Tools.FACTORY_DATA_REPRESENTATION.fromJson(expected);
+            DataRepresentation param = Tools.FACTORY_DATA_REPRESENTATION.fromJson(inputParam);
+            call = withinPhaseTimeout(cacheable ? FunctionalityResultCache.get(name, param, () -> BACKEND.call(requestId, name, param)) : BACKEND.call(requestId, name, param), TestPhase.CALL, cancelled);
         }
         catch (Exception e) {
+            return CompletableFuture.completedFuture(Collections.singletonList(String.format(errorMessageFormat, StringUtil.fromThrowableToString(e))));
         }
+        return call.handle((result, error) -> {
+            long assertionStart = System.nanoTime();
+            exitPhase(timings, TestPhase.CALL, assertionStart - callStart);
+            if (error != null) {
+                return Collections.singletonList(String.format(errorMessageFormat, describe(error)));
+            }
+            enterPhase(timings, TestPhase.ASSERTION);
+            List<String> errorMessages = assertResult(result);
+            if (!errorMessages.isEmpty() && FailurePayloadWriter.isEnabled()) {
+                errorMessages = append(errorMessages, FailurePayloadWriter.write(getCaseIdentity(), requestId, expectedOutput, result));
+            }
+            exitPhase(timings, TestPhase.ASSERTION, System.nanoTime() - assertionStart);
+            return errorMessages;
+        });
+    }
 
-        String result = rpcResponse.getResult().toJson();
-        DataRepresentation resultJson = null;
+    final CompletableFuture<DataRepresentation> invoke(Long requestId) {
         try {
-            resultJson = Tools.FACTORY_DATA_REPRESENTATION.fromJson(result);
+            DataRepresentation param = Tools.FACTORY_DATA_REPRESENTATION.fromJson(inputParam);
+            return withinPhaseTimeout(BACKEND.call(requestId, name, param), TestPhase.CALL, new TestCancellation());
         }
         catch (Exception e) {
+            CompletableFuture<DataRepresentation> call = new CompletableFuture<>();
+            call.completeExceptionally(e);
+            return call;
         }
+    }
 
-        List<String> errorMessages = new ArrayList<>();
+    final CompletableFuture<List<String>> performPreambleOnly() {
+        TestCancellation cancelled = new TestCancellation();
+        return withinPhaseTimeout(isBatchPreamble() ? performBatchPreamble(cancelled) : performPreamble(0, cancelled), TestPhase.PREAMBLE, cancelled);
+    }
 
-        verifyResult(errorMessages, "testOutput", expectedJson, resultJson);
+    final CompletableFuture<List<String>> performEpilogueOnly() {
+        List<String> errorMessages = Collections.emptyList();
+        TestCancellation cancelled = new TestCancellation();
+        return withinPhaseTimeout(isCombinedEpilogue() ? verifyCombinedEpilogueQueries(errorMessages, cancelled) : verifyEpilogueQueries(errorMessages, 0, cancelled), TestPhase.EPILOGUE, cancelled);
+    }
 
-        verifyEpilogueQueriesThenAccept(consumer, errorMessages);
+    final List<String> assertResult(DataRepresentation result) {
+        return getExpectedOutputMatcher(expectedOutput).verify(result);
     }
 
-    private final void verifyEpilogueQueriesThenAccept(Consumer<List<String>> consumer, List<String> errorMessages) {
-        verifyEpilogueQueriesThenAccept(consumer, errorMessages, null);
+    ExpectedOutputMatcher getExpectedOutputMatcher(String expectedOutput) {
+        return ExpectedOutputMatcher.forTestCase(this.getClass(), expectedOutput);
     }
 
-    private final void verifyEpilogueQueriesThenAccept(Consumer<List<String>> consumer, List<String> errorMessages, Integer i) {
-        if (persistenceEpilogueVerifications == null || !(persistenceEpilogueVerifications.size() > 0) || (i != null && i == persistenceEpilogueVerifications.size())) {
-            consumer.accept(errorMessages);
-            return;
+    private final CompletableFuture<List<String>> verifyCombinedEpilogueQueries(List<String> errorMessages, TestCancellation cancelled) {
+        if (persistenceEpilogueVerifications == null || persistenceEpilogueVerifications.size() == 0) {
+            return CompletableFuture.completedFuture(errorMessages);
+        }
+        String errorMessageFormat = "Persistence epilogue verification\n\n%s\n\nreturned the following error:\n\n%s";
+        CompletableFuture<DataRepresentation> query;
+        try {
+            query = PersistenceStatement.existenceChecks(BACKEND, persistenceEpilogueVerifications);
         }
-        if (i == null) {
-            verifyEpilogueQueriesThenAccept(consumer, errorMessages, 0);
-            return;
+        catch (Exception e) {
+            return verifyEpilogueQueries(errorMessages, 0, cancelled);
+        }
+        return query.handle((databaseResponse, error) -> {
+            try {
+                if (error != null || databaseResponse == null || databaseResponse.length() != 1) {
+                    return null;
+                }
+                DataRepresentation row = databaseResponse.first();
+                Map<String, String> columns = new HashMap<>();
+                for (String property : row.getProperties()) {
+                    columns.put(property.toLowerCase(), property);
+                }
+                List<String> result = errorMessages;
+                for (int i = 0; i < persistenceEpilogueVerifications.size(); i++) {
+                    String column = columns.get(PersistenceScript.existenceCheckAlias(i));
+                    Exception failure = null;
+                    if (column == null) {
+                        failure = new IllegalArgumentException("Query result must return column " + PersistenceScript.existenceCheckAlias(i));
+                    }
+                    else {
+                        String value = row.getText(column);
+                        if (!"YES".equals(value)) {
+                            failure = new IllegalArgumentException("Expected YES, found " + value);
+                        }
+                    }
+                    if (failure != null) {
+                        result = append(result, String.format(errorMessageFormat, persistenceEpilogueVerifications.get(i), StringUtil.fromThrowableToString(failure)));
+                    }
+                }
+                return result;
+            }
+            catch (Exception e) {
+                return null;
+            }
+        }).thenCompose(result -> result != null ? CompletableFuture.completedFuture(result) : verifyEpilogueQueries(errorMessages, 0, cancelled));
+    }
+
+    private final CompletableFuture<List<String>> verifyEpilogueQueries(List<String> errorMessages, int i, TestCancellation cancelled) {
+        if (persistenceEpilogueVerifications == null || i >= persistenceEpilogueVerifications.size()) {
+            return CompletableFuture.completedFuture(errorMessages);
+        }
+        if (cancelled.isCancelled()) {
+            return cancelledFuture();
         }
         String epilogueVerification = persistenceEpilogueVerifications.get(i);
-        String manimulatedEpilogueVerification = String.format("SELECT (CASE WHEN EXISTS (%s) THEN 'YES' ELSE 'NO' END) as result", epilogueVerification);
+        String errorMessageFormat = "Persistence epilogue verification\n\n%s\n\nreturned the following error:\n\n%s";
+        CompletableFuture<List<String>> verification;
         try {
-            PersistenceFunctionalitiesManager.query(manimulatedEpilogueVerification).handle((databaseResponse, error) -> {
+            verification = PersistenceStatement.existenceCheck(BACKEND, epilogueVerification).handle((databaseResponse, error) -> {
                 try {
-                    if(error != null) {
+                    if (error != null) {
                         throw error;
                     }
                     if (databaseResponse == null) {
@@ -266,121 +561,33 @@ public abstract class AbstractFunctionalityTestCase {
                         throw new IllegalArgumentException("Query result must return just one row");
                     }
 
-                    databaseResponse = databaseResponse.first();
+                    DataRepresentation row = databaseResponse.first();
 
-                    if (databaseResponse.getProperties().size() != 1) {
+                    if (row.getProperties().size() != 1) {
                         throw new IllegalArgumentException("Query result must return just one column");
                     }
-                    String value = databaseResponse.getText(databaseResponse.getProperties().get(0));
+                    String value = row.getText(row.getProperties().get(0));
                     if (!value.equals("YES")) {
                         throw new IllegalArgumentException("Expected YES, found " + value);
                     }
+                    return errorMessages;
                 }
                 catch (Throwable e) {
-                    String errorMessageFormat = "Persistence epilogue verification\n\n%s\n\nreturned the following error:\n\n%s";
-                    errorMessages.add(String.format(errorMessageFormat, epilogueVerification, StringUtil.fromThrowableToString(e)));
+                    return append(errorMessages, String.format(errorMessageFormat, epilogueVerification, StringUtil.fromThrowableToString(e)));
                 }
-                verifyEpilogueQueriesThenAccept(consumer, errorMessages, (i + 1));
-                return null;
             });
         }
         catch (Exception e) {
-            String errorMessageFormat = "Persistence epilogue verification\n\n%s\n\nreturned the following error:\n\n%s";
-            errorMessages.add(String.format(errorMessageFormat, epilogueVerification, StringUtil.fromThrowableToString(e)));
-            verifyEpilogueQueriesThenAccept(consumer, errorMessages, (i + 1));
+            verification = CompletableFuture.completedFuture(append(errorMessages, String.format(errorMessageFormat, epilogueVerification, StringUtil.fromThrowableToString(e))));
         }
+        return verification.thenCompose(result -> verifyEpilogueQueries(result, i + 1, cancelled));
     }
 
-    private final void verifyResult(List<String> errorMessages, String propertyName, DataRepresentation expectedJson, DataRepresentation resultJson) {
-        if(expectedJson == null) {
-            expectedJson = Tools.FACTORY_DATA_REPRESENTATION.fromJson("null");
-        }
-        if(resultJson == null) {
-            resultJson = Tools.FACTORY_DATA_REPRESENTATION.fromJson("null");
-        }
-        if (expectedJson.isNull() && resultJson.isNull()) {
-            return;
-        }
-        if (expectedJson.isNull()) {
-            errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, "null value", resultJson.hasLength() ? ("an array of size " + resultJson.length() + ":\n\n" + resultJson.toString() + "\n\n") : resultJson.hasProperties() ? ("a JSON object:\n\n" + resultJson.toString() + "\n\n") : resultJson.toString()));
-            return;
-        }
-        SpecialTypeEnum specialType = null;
-        try {
-            specialType = SpecialTypeEnum.fromText(expectedJson.toJson());
-        }
-        catch (Exception e) {
-        }
-        if (specialType != null) {
-            if (specialType == SpecialTypeEnum.ANY) {
-                if (resultJson.hasLength()) {
-                    errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, SpecialTypeEnum.ANY.getText(), "an array of size " + resultJson.length() + ":\n\n" + resultJson.toString() + "\n\n"));
-                }
-                return;
-            }
-
-            if (specialType == SpecialTypeEnum.SOME) {
-                if (resultJson.isNull()) {
-                    errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, SpecialTypeEnum.SOME.getText(), "null value"));
-                }
-                else
-                    if (resultJson.hasLength()) {
-                        errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, SpecialTypeEnum.SOME.getText(), "an array of size " + resultJson.length() + ":\n\n" + resultJson.toString() + "\n\n"));
-                    }
-                return;
-            }
-
-            if (!resultJson.hasLength()) {
-                errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, specialType.getText(), resultJson.hasProperties() ? ("a JSON Object:\n\n" + resultJson.toString() + "\n\n") : resultJson.isNull() ? "null value" : resultJson.toString()));
-                return;
-            }
-
-            if (specialType == SpecialTypeEnum.ARRAY_UNDEFINED_LENGTH) {
-                return;
-            }
-            if (specialType == SpecialTypeEnum.ARRAY_JUST_ONE_ELEMENT && resultJson.length() != 1) {
-                errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, SpecialTypeEnum.ARRAY_JUST_ONE_ELEMENT.getText(), "an array of size " + resultJson.length() + ":\n\n" + resultJson.toJson() + "\n\n"));
-                return;
-            }
-
-            if (specialType == SpecialTypeEnum.ARRAY_MORE_THAN_AN_ELEMENT && !(resultJson.length() > 1)) {
-                errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, SpecialTypeEnum.ARRAY_MORE_THAN_AN_ELEMENT.getText(), "an array of size " + resultJson.length() + ":\n\n" + resultJson.toJson() + "\n\n"));
-                return;
-            }
-        }
-        else
-            if (expectedJson.hasLength()) {
-                if (!resultJson.hasLength()) {
-                    errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, "an array of size " + expectedJson.length() + ":\n\n" + SpecialTypeEnum.clean(expectedJson.toJson()) + "\n\n", resultJson.hasProperties() ? ("a JSON Object:\n\n" + resultJson.toString() + "\n\n") : resultJson.isNull() ? "null value" : resultJson.toJson()));
-                    return;
-                }
-                else {
-                    if (expectedJson.length() != resultJson.length()) {
-                        errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, "an array of size " + expectedJson.length() + ":\n\n" + SpecialTypeEnum.clean(expectedJson.toJson()) + "\n\n", "an array of size " + resultJson.length() + ":\n\n" + resultJson.toJson() + "\n\n"));
-                        return;
-                    }
-                    for (int i = 0; i < expectedJson.length(); i++) {
-                        verifyResult(errorMessages, propertyName + "[" + i + "]", expectedJson.get(i), resultJson.get(i));
-                    }
-                }
-            }
-            else
-                if (expectedJson.hasProperties()) {
-                    if (!resultJson.hasProperties()) {
-                        errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, "a JSON object:\n\n" + SpecialTypeEnum.clean(expectedJson.toJson()) + "\n\n", resultJson.hasLength() ? ("an array of size " + resultJson.length() + ":\n\n" + resultJson.toString() + "\n\n") : resultJson.isNull() ? "null value" : resultJson.toString()));
-                        return;
-                    }
-                    else {
-                        TextSeries expectedPropertyNames = expectedJson.getProperties();
-                        for (String expectedPropertyName : expectedPropertyNames) {
-                            verifyResult(errorMessages, propertyName + "." + expectedPropertyName, expectedJson.get(expectedPropertyName), resultJson.get(expectedPropertyName));
-                        }
-                    }
-                }
-                else
-                    if (!expectedJson.toJson().equals(resultJson.toJson())) {
-                        errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, expectedJson.toString(), resultJson.toString()));
-                    }
+    private static final List<String> append(List<String> errorMessages, String errorMessage) {
+        List<String> appended = new ArrayList<>(errorMessages.size() + 1);
+        appended.addAll(errorMessages);
+        appended.add(errorMessage);
+        return Collections.unmodifiableList(appended);
     }
 
     @After
@@ -399,6 +606,14 @@ public abstract class AbstractFunctionalityTestCase {
         catch (Exception e) {
             throw new RuntimeException("Error while running Test Case Before Test", e);
         }
+        if (isRollbackAfterTest()) {
+            try {
+                TestFixtureManager.rollbackTransaction();
+            }
+            catch (Exception e) {
+                throw new RuntimeException("Error while rolling back Test Case Transaction", e);
+            }
+        }
         if (SUPERVISOR != null) {
             try {
                 SUPERVISOR.postAfterTest();
@@ -412,13 +627,4 @@ public abstract class AbstractFunctionalityTestCase {
     protected void performAfterTest() throws Exception {
 
     }
-
-    private static final void await(CountDownLatch counter) {
-        try {
-            counter.await();
-        }
-        catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-    }
 }
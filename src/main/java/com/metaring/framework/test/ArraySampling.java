@@ -0,0 +1,95 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+final class ArraySampling {
+
+    static final String SAMPLING_PROPERTY = "metaring.test.assertion.sampling";
+    static final String SAMPLING_THRESHOLD_PROPERTY = "metaring.test.assertion.sampling.threshold";
+    static final String SAMPLING_SEED_PROPERTY = "metaring.test.assertion.sampling.seed";
+
+    private static final String EVERY = "every:";
+    private static final String RANDOM = "random:";
+
+    static final ArraySampling DEFAULT = parse(System.getProperty(SAMPLING_PROPERTY), Integer.getInteger(SAMPLING_THRESHOLD_PROPERTY, 1000), Long.getLong(SAMPLING_SEED_PROPERTY, 0L));
+
+    private final int every;
+    private final int random;
+    private final int threshold;
+    private final long seed;
+
+    private ArraySampling(int every, int random, int threshold, long seed) {
+        this.every = every;
+        this.random = random;
+        this.threshold = threshold;
+        this.seed = seed;
+    }
+
+    static ArraySampling parse(String sampling, int threshold, long seed) {
+        if (sampling == null || sampling.trim().isEmpty()) {
+            return new ArraySampling(0, 0, threshold, seed);
+        }
+        sampling = sampling.trim().toLowerCase();
+        if (sampling.startsWith(EVERY)) {
+            return new ArraySampling(positive(sampling, sampling.substring(EVERY.length())), 0, threshold, seed);
+        }
+        if (sampling.startsWith(RANDOM)) {
+            return new ArraySampling(0, positive(sampling, sampling.substring(RANDOM.length())), threshold, seed);
+        }
+        throw new IllegalArgumentException("Unknown " + SAMPLING_PROPERTY + " value '" + sampling + "', expecting every:<k> or random:<n>");
+    }
+
+    private static int positive(String sampling, String value) {
+        int parsed = Integer.parseInt(value.trim());
+        if (parsed < 1) {
+            throw new IllegalArgumentException("Invalid " + SAMPLING_PROPERTY + " value '" + sampling + "', expecting a positive number");
+        }
+        return parsed;
+    }
+
+    boolean isApplicable(int length) {
+        return (every > 0 || random > 0) && length > threshold;
+    }
+
+    void forEachIndex(int length, IntPredicate visitor) {
+        if (every > 0) {
+            for (int i = 0; i < length; i += every) {
+                if (!visitor.test(i)) {
+                    return;
+                }
+            }
+            if ((length - 1) % every != 0) {
+                visitor.test(length - 1);
+            }
+            return;
+        }
+        SplittableRandom generator = new SplittableRandom(seed ^ length);
+        int toSelect = Math.min(random, length);
+        for (int i = 0; i < length && toSelect > 0; i++) {
+            if (generator.nextInt(length - i) < toSelect) {
+                toSelect--;
+                if (!visitor.test(i)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.metaring.framework.Tools;
+import com.metaring.framework.type.DataRepresentation;
+
+final class CatalogFunctionalityTestCase extends AbstractFunctionalityTestCase {
+
+    private CatalogFunctionalityTestCase(String name, Long id, String title, String description, String inputParam, String expectedOutput, List<String> persistencePreambleActions, List<String> persistenceEpilogueVerifications) {
+        super(name, id, title, description, inputParam, expectedOutput, persistencePreambleActions, persistenceEpilogueVerifications);
+    }
+
+    @Override
+    String getCaseGroup() {
+        return getName();
+    }
+
+    @Override
+    ExpectedOutputMatcher getExpectedOutputMatcher(String expectedOutput) {
+        return ExpectedOutputMatcher.compile(expectedOutput);
+    }
+
+    static CatalogFunctionalityTestCase parse(String json) {
+        DataRepresentation entry = Tools.FACTORY_DATA_REPRESENTATION.fromJson(json);
+        if (entry == null || !entry.hasProperties()) {
+            throw new IllegalArgumentException("Catalog entry must be a JSON object");
+        }
+        String name = text(entry, "functionality");
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Catalog entry must declare its functionality");
+        }
+        String id = json(entry, "id");
+        return new CatalogFunctionalityTestCase(name, "null".equals(id) ? 0L : Long.parseLong(id), text(entry, "title"), text(entry, "description"), json(entry, "input"), json(entry, "expectedOutput"), texts(entry, "preamble"), texts(entry, "epilogue"));
+    }
+
+    private static DataRepresentation get(DataRepresentation entry, String property) {
+        try {
+            return entry.get(property);
+        }
+        catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String json(DataRepresentation entry, String property) {
+        DataRepresentation value = get(entry, property);
+        return value == null ? "null" : value.toJson();
+    }
+
+    private static String text(DataRepresentation entry, String property) {
+        DataRepresentation value = get(entry, property);
+        return value == null || value.isNull() ? null : unquote(value.toJson());
+    }
+
+    private static List<String> texts(DataRepresentation entry, String property) {
+        DataRepresentation value = get(entry, property);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.hasLength()) {
+            throw new IllegalArgumentException("Catalog entry property " + property + " must be an array of strings");
+        }
+        long length = value.length();
+        List<String> texts = new ArrayList<>((int) length);
+        for (int i = 0; i < length; i++) {
+            texts.add(unquote(value.get(i).toJson()));
+        }
+        return Collections.unmodifiableList(texts);
+    }
+
+    static String unquote(String json) {
+        if (json.length() < 2 || json.charAt(0) != '"' || json.charAt(json.length() - 1) != '"') {
+            return json;
+        }
+        StringBuilder text = new StringBuilder(json.length() - 2);
+        for (int i = 1; i < json.length() - 1; i++) {
+            char c = json.charAt(i);
+            if (c != '\\' || i + 1 >= json.length() - 1) {
+                text.append(c);
+                continue;
+            }
+            char escaped = json.charAt(++i);
+            switch (escaped) {
+                case 'n':
+                    text.append('\n');
+                    break;
+                case 'r':
+                    text.append('\r');
+                    break;
+                case 't':
+                    text.append('\t');
+                    break;
+                case 'b':
+                    text.append('\b');
+                    break;
+                case 'f':
+                    text.append('\f');
+                    break;
+                case 'u':
+                    text.append((char) Integer.parseInt(json.substring(i + 1, i + 5), 16));
+                    i += 4;
+                    break;
+                default:
+                    text.append(escaped);
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.List;
+
+final class CompositeTestsBatterySupervisor implements CoreTestsBatterySupervisor {
+
+    private final CoreTestsBatterySupervisor[] supervisors;
+    private final TestBatteryContext batteryContext = new TestBatteryContext();
+
+    CompositeTestsBatterySupervisor(List<CoreTestsBatterySupervisor> supervisors) {
+        this.supervisors = supervisors.toArray(new CoreTestsBatterySupervisor[supervisors.size()]);
+    }
+
+    TestBatteryContext getBatteryContext() {
+        return batteryContext;
+    }
+
+    @Override
+    public void init() throws Exception {
+        each(CoreTestsBatterySupervisor::init);
+        each(supervisor -> supervisor.batteryStarted(batteryContext));
+    }
+
+    @Override
+    public void preBeforeTest() throws Exception {
+        each(CoreTestsBatterySupervisor::preBeforeTest);
+    }
+
+    @Override
+    public void postBeforeTest() throws Exception {
+        each(CoreTestsBatterySupervisor::postBeforeTest);
+    }
+
+    @Override
+    public void preAfterTest() throws Exception {
+        each(CoreTestsBatterySupervisor::preAfterTest);
+    }
+
+    @Override
+    public void postAfterTest() throws Exception {
+        each(CoreTestsBatterySupervisor::postAfterTest);
+    }
+
+    @Override
+    public void preFixture(FunctionalityTestFixture fixture) throws Exception {
+        each(supervisor -> supervisor.preFixture(fixture));
+    }
+
+    @Override
+    public void postFixture(FunctionalityTestFixture fixture) throws Exception {
+        each(supervisor -> supervisor.postFixture(fixture));
+    }
+
+    @Override
+    public void phaseStarted(TestCaseContext context, TestPhase phase) throws Exception {
+        each(supervisor -> supervisor.phaseStarted(context, phase));
+    }
+
+    @Override
+    public void phaseEnded(TestCaseContext context, TestPhase phase, long elapsedNanos) throws Exception {
+        each(supervisor -> supervisor.phaseEnded(context, phase, elapsedNanos));
+    }
+
+    @Override
+    public void timingsRecorded(TestOutcome outcome) throws Exception {
+        batteryContext.record(outcome);
+        each(supervisor -> {
+            supervisor.timingsRecorded(outcome);
+            if (outcome.isSuccessful()) {
+                supervisor.testSucceeded(outcome);
+            }
+            else {
+                supervisor.testFailed(outcome);
+            }
+        });
+    }
+
+    @Override
+    public void end() throws Exception {
+        Exception exception = null;
+        try {
+            each(supervisor -> supervisor.batteryEnded(batteryContext));
+        }
+        catch (Exception e) {
+            exception = e;
+        }
+        try {
+            each(CoreTestsBatterySupervisor::end);
+        }
+        catch (Exception e) {
+            exception = exception == null ? e : exception;
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private void each(SupervisorCall call) throws Exception {
+        Exception exception = null;
+        for (CoreTestsBatterySupervisor supervisor : supervisors) {
+            try {
+                call.apply(supervisor);
+            }
+            catch (Exception e) {
+                if (exception == null) {
+                    exception = e;
+                }
+                else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private interface SupervisorCall {
+
+        void apply(CoreTestsBatterySupervisor supervisor) throws Exception;
+    }
+}
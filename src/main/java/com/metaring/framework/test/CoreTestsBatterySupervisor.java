@@ -30,4 +30,40 @@ public interface CoreTestsBatterySupervisor {
 
     public void end() throws Exception;
 
+    public default void preFixture(FunctionalityTestFixture fixture) throws Exception {
+
+    }
+
+    public default void postFixture(FunctionalityTestFixture fixture) throws Exception {
+
+    }
+
+    public default void timingsRecorded(TestOutcome outcome) throws Exception {
+
+    }
+
+    public default void batteryStarted(TestBatteryContext context) throws Exception {
+
+    }
+
+    public default void batteryEnded(TestBatteryContext context) throws Exception {
+
+    }
+
+    public default void phaseStarted(TestCaseContext context, TestPhase phase) throws Exception {
+
+    }
+
+    public default void phaseEnded(TestCaseContext context, TestPhase phase, long elapsedNanos) throws Exception {
+
+    }
+
+    public default void testSucceeded(TestOutcome outcome) throws Exception {
+
+    }
+
+    public default void testFailed(TestOutcome outcome) throws Exception {
+
+    }
+
 }
@@ -0,0 +1,291 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.metaring.framework.Tools;
+import com.metaring.framework.type.DataRepresentation;
+import com.metaring.framework.type.series.TextSeries;
+
+abstract class ExpectedOutputMatcher {
+
+    private static final String ERROR_MESSAGE_FORMAT = "Property: %s - Expecting %s - Found %s";
+
+    private static final String ROOT_PROPERTY = "testOutput";
+
+    static final String MAX_DIFFERENCES_PROPERTY = "metaring.test.report.max.differences";
+
+    private static final int MAX_DIFFERENCES = Integer.getInteger(MAX_DIFFERENCES_PROPERTY, 100);
+
+    private static final Map<Class<?>, CompiledExpectedOutput> CACHE = new ConcurrentHashMap<>();
+
+    static ExpectedOutputMatcher forTestCase(Class<?> testCaseClass, String expectedOutput) {
+        CompiledExpectedOutput compiled = CACHE.get(testCaseClass);
+        if (compiled == null || !compiled.isCompiledFrom(expectedOutput)) {
+            compiled = new CompiledExpectedOutput(expectedOutput, compile(expectedOutput));
+            CACHE.put(testCaseClass, compiled);
+        }
+        return compiled.matcher;
+    }
+
+    static ExpectedOutputMatcher compile(String expectedOutput) {
+        DataRepresentation expectedJson = null;
+        try {
+            expectedJson = Tools.FACTORY_DATA_REPRESENTATION.fromJson(expectedOutput);
+        }
+        catch (Exception e) {
+        }
+        return compile(expectedJson);
+    }
+
+    static ExpectedOutputMatcher compile(DataRepresentation expectedJson) {
+        if (isNull(expectedJson)) {
+            return NullMatcher.INSTANCE;
+        }
+        if (expectedJson.hasLength()) {
+            int length = (int) (long) expectedJson.length();
+            ExpectedOutputMatcher[] elements = new ExpectedOutputMatcher[length];
+            for (int i = 0; i < length; i++) {
+                elements[i] = compile(expectedJson.get(i));
+            }
+            return new ArrayMatcher(expectedJson, elements);
+        }
+        if (expectedJson.hasProperties()) {
+            TextSeries expectedPropertyNames = expectedJson.getProperties();
+            String[] propertyNames = new String[expectedPropertyNames.size()];
+            ExpectedOutputMatcher[] properties = new ExpectedOutputMatcher[propertyNames.length];
+            for (int i = 0; i < propertyNames.length; i++) {
+                propertyNames[i] = expectedPropertyNames.get(i);
+                properties[i] = compile(expectedJson.get(propertyNames[i]));
+            }
+            return new ObjectMatcher(expectedJson, propertyNames, properties);
+        }
+        String expectedText = expectedJson.toJson();
+        SpecialTypeEnum specialType = null;
+        try {
+            specialType = SpecialTypeEnum.fromText(expectedText);
+        }
+        catch (Exception e) {
+        }
+        if (specialType != null) {
+            return SpecialTypeMatcher.of(specialType);
+        }
+        return new LiteralMatcher(expectedText, JsonSnippet.of(expectedJson.toString()));
+    }
+
+    final List<String> verify(DataRepresentation resultJson) {
+        List<String> errorMessages = new ArrayList<>();
+        match(errorMessages, PropertyPath.root(ROOT_PROPERTY), resultJson);
+        return errorMessages.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(errorMessages);
+    }
+
+    abstract void match(List<String> errorMessages, PropertyPath propertyPath, DataRepresentation resultJson);
+
+    static final void addError(List<String> errorMessages, PropertyPath propertyPath, String expected, String found) {
+        if (MAX_DIFFERENCES > 0 && errorMessages.size() >= MAX_DIFFERENCES) {
+            if (errorMessages.size() == MAX_DIFFERENCES) {
+                errorMessages.add("Further differences omitted after the first " + MAX_DIFFERENCES + " (see " + MAX_DIFFERENCES_PROPERTY + ")");
+            }
+            return;
+        }
+        errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyPath, expected, found));
+    }
+
+    static final boolean isSaturated(List<String> errorMessages) {
+        return MAX_DIFFERENCES > 0 && errorMessages.size() > MAX_DIFFERENCES;
+    }
+
+    static final boolean isNull(DataRepresentation dataRepresentation) {
+        return dataRepresentation == null || dataRepresentation.isNull();
+    }
+
+    static final boolean hasLength(DataRepresentation dataRepresentation) {
+        return dataRepresentation != null && dataRepresentation.hasLength();
+    }
+
+    static final boolean hasProperties(DataRepresentation dataRepresentation) {
+        return dataRepresentation != null && dataRepresentation.hasProperties();
+    }
+
+    private static final class CompiledExpectedOutput {
+
+        private final String expectedOutput;
+        private final ExpectedOutputMatcher matcher;
+
+        private CompiledExpectedOutput(String expectedOutput, ExpectedOutputMatcher matcher) {
+            this.expectedOutput = expectedOutput;
+            this.matcher = matcher;
+        }
+
+        private boolean isCompiledFrom(String expectedOutput) {
+            return this.expectedOutput == expectedOutput || (this.expectedOutput != null && this.expectedOutput.equals(expectedOutput));
+        }
+    }
+
+    static final class NullMatcher extends ExpectedOutputMatcher {
+
+        static final NullMatcher INSTANCE = new NullMatcher();
+
+        private NullMatcher() {
+        }
+
+        @Override
+        void match(List<String> errorMessages, PropertyPath propertyPath, DataRepresentation resultJson) {
+            if (isNull(resultJson)) {
+                return;
+            }
+            addError(errorMessages, propertyPath, "null value", resultJson.hasLength() ? ("an array of size " + resultJson.length() + ":\n\n" + JsonSnippet.of(resultJson) + "\n\n") : resultJson.hasProperties() ? ("a JSON object:\n\n" + JsonSnippet.of(resultJson) + "\n\n") : JsonSnippet.of(resultJson));
+        }
+    }
+
+    static final class LiteralMatcher extends ExpectedOutputMatcher {
+
+        private final String expectedJson;
+        private final String expectedText;
+
+        private LiteralMatcher(String expectedJson, String expectedText) {
+            this.expectedJson = expectedJson;
+            this.expectedText = expectedText;
+        }
+
+        @Override
+        void match(List<String> errorMessages, PropertyPath propertyPath, DataRepresentation resultJson) {
+            if (resultJson == null || !expectedJson.equals(resultJson.toJson())) {
+                addError(errorMessages, propertyPath, expectedText, JsonSnippet.of(resultJson));
+            }
+        }
+    }
+
+    static final class ArrayMatcher extends ExpectedOutputMatcher {
+
+        private final DataRepresentation expectedJson;
+        private final ExpectedOutputMatcher[] elements;
+
+        private ArrayMatcher(DataRepresentation expectedJson, ExpectedOutputMatcher[] elements) {
+            this.expectedJson = expectedJson;
+            this.elements = elements;
+        }
+
+        @Override
+        void match(List<String> errorMessages, PropertyPath propertyPath, DataRepresentation resultJson) {
+            if (!hasLength(resultJson)) {
+                addError(errorMessages, propertyPath, describeExpected(), hasProperties(resultJson) ? ("a JSON Object:\n\n" + JsonSnippet.of(resultJson) + "\n\n") : isNull(resultJson) ? "null value" : JsonSnippet.of(resultJson));
+                return;
+            }
+            long resultLength = resultJson.length();
+            if (elements.length != resultLength) {
+                addError(errorMessages, propertyPath, describeExpected(), "an array of size " + resultLength + ":\n\n" + JsonSnippet.of(resultJson) + "\n\n");
+                return;
+            }
+            if (ArraySampling.DEFAULT.isApplicable(elements.length)) {
+                ArraySampling.DEFAULT.forEachIndex(elements.length, i -> {
+                    elements[i].match(errorMessages, propertyPath.index(i), resultJson.get(i));
+                    return !isSaturated(errorMessages);
+                });
+                return;
+            }
+            for (int i = 0; i < elements.length && !isSaturated(errorMessages); i++) {
+                elements[i].match(errorMessages, propertyPath.index(i), resultJson.get(i));
+            }
+        }
+
+        private String describeExpected() {
+            return "an array of size " + elements.length + ":\n\n" + JsonSnippet.ofExpected(expectedJson) + "\n\n";
+        }
+    }
+
+    static final class ObjectMatcher extends ExpectedOutputMatcher {
+
+        private final DataRepresentation expectedJson;
+        private final String[] propertyNames;
+        private final ExpectedOutputMatcher[] properties;
+
+        private ObjectMatcher(DataRepresentation expectedJson, String[] propertyNames, ExpectedOutputMatcher[] properties) {
+            this.expectedJson = expectedJson;
+            this.propertyNames = propertyNames;
+            this.properties = properties;
+        }
+
+        @Override
+        void match(List<String> errorMessages, PropertyPath propertyPath, DataRepresentation resultJson) {
+            if (!hasProperties(resultJson)) {
+                addError(errorMessages, propertyPath, "a JSON object:\n\n" + JsonSnippet.ofExpected(expectedJson) + "\n\n", hasLength(resultJson) ? ("an array of size " + resultJson.length() + ":\n\n" + JsonSnippet.of(resultJson) + "\n\n") : isNull(resultJson) ? "null value" : JsonSnippet.of(resultJson));
+                return;
+            }
+            for (int i = 0; i < propertyNames.length && !isSaturated(errorMessages); i++) {
+                properties[i].match(errorMessages, propertyPath.property(propertyNames[i]), resultJson.get(propertyNames[i]));
+            }
+        }
+    }
+
+    static final class SpecialTypeMatcher extends ExpectedOutputMatcher {
+
+        private static final Map<SpecialTypeEnum, SpecialTypeMatcher> INSTANCES = new ConcurrentHashMap<>();
+
+        private final SpecialTypeEnum specialType;
+
+        private SpecialTypeMatcher(SpecialTypeEnum specialType) {
+            this.specialType = specialType;
+        }
+
+        static SpecialTypeMatcher of(SpecialTypeEnum specialType) {
+            return INSTANCES.computeIfAbsent(specialType, SpecialTypeMatcher::new);
+        }
+
+        @Override
+        void match(List<String> errorMessages, PropertyPath propertyPath, DataRepresentation resultJson) {
+            if (specialType == SpecialTypeEnum.ANY) {
+                if (hasLength(resultJson)) {
+                    addError(errorMessages, propertyPath, SpecialTypeEnum.ANY.getText(), "an array of size " + resultJson.length() + ":\n\n" + JsonSnippet.of(resultJson) + "\n\n");
+                }
+                return;
+            }
+
+            if (specialType == SpecialTypeEnum.SOME) {
+                if (isNull(resultJson)) {
+                    addError(errorMessages, propertyPath, SpecialTypeEnum.SOME.getText(), "null value");
+                }
+                else
+                    if (resultJson.hasLength()) {
+                        addError(errorMessages, propertyPath, SpecialTypeEnum.SOME.getText(), "an array of size " + resultJson.length() + ":\n\n" + JsonSnippet.of(resultJson) + "\n\n");
+                    }
+                return;
+            }
+
+            if (!hasLength(resultJson)) {
+                addError(errorMessages, propertyPath, specialType.getText(), hasProperties(resultJson) ? ("a JSON Object:\n\n" + JsonSnippet.of(resultJson) + "\n\n") : isNull(resultJson) ? "null value" : JsonSnippet.of(resultJson));
+                return;
+            }
+
+            long resultLength = resultJson.length();
+            if (specialType == SpecialTypeEnum.ARRAY_JUST_ONE_ELEMENT && resultLength != 1) {
+                addError(errorMessages, propertyPath, SpecialTypeEnum.ARRAY_JUST_ONE_ELEMENT.getText(), "an array of size " + resultLength + ":\n\n" + JsonSnippet.of(resultJson) + "\n\n");
+                return;
+            }
+
+            if (specialType == SpecialTypeEnum.ARRAY_MORE_THAN_AN_ELEMENT && !(resultLength > 1)) {
+                addError(errorMessages, propertyPath, SpecialTypeEnum.ARRAY_MORE_THAN_AN_ELEMENT.getText(), "an array of size " + resultLength + ":\n\n" + JsonSnippet.of(resultJson) + "\n\n");
+            }
+        }
+    }
+}
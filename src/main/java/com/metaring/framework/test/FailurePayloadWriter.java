@@ -0,0 +1,97 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.metaring.framework.type.DataRepresentation;
+
+final class FailurePayloadWriter {
+
+    static final String FAILURE_PAYLOADS_PROPERTY = "metaring.test.report.payloads";
+
+    private static final boolean FAILURE_PAYLOADS = Boolean.getBoolean(FAILURE_PAYLOADS_PROPERTY);
+
+    private FailurePayloadWriter() {
+    }
+
+    static boolean isEnabled() {
+        return FAILURE_PAYLOADS;
+    }
+
+    static String write(String caseIdentity, Long requestId, String expectedOutput, DataRepresentation result) {
+        File directory = new File(PhaseTimingsReporter.reportDirectory(), "failure-payloads");
+        File file = new File(directory, caseIdentity + "-" + requestId + ".json");
+        try {
+            directory.mkdirs();
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+                writer.write("{\n\"expected\": ");
+                writer.write(expectedOutput == null || expectedOutput.trim().isEmpty() ? "null" : expectedOutput);
+                writer.write(",\n\"actual\": ");
+                append(writer, result);
+                writer.write("\n}\n");
+            }
+            return "Full expected and actual payloads written to " + file.getAbsolutePath();
+        }
+        catch (IOException e) {
+            return "Could not write full payloads to " + file.getAbsolutePath() + ": " + e.getMessage();
+        }
+    }
+
+    private static void append(Writer writer, DataRepresentation dataRepresentation) throws IOException {
+        if (dataRepresentation == null || dataRepresentation.isNull()) {
+            writer.write("null");
+            return;
+        }
+        if (dataRepresentation.hasLength()) {
+            long length = dataRepresentation.length();
+            writer.write('[');
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                append(writer, dataRepresentation.get(i));
+            }
+            writer.write(']');
+            return;
+        }
+        if (dataRepresentation.hasProperties()) {
+            writer.write('{');
+            boolean first = true;
+            for (String property : dataRepresentation.getProperties()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                first = false;
+                writer.write('"');
+                writer.write(property.replace("\\", "\\\\").replace("\"", "\\\""));
+                writer.write("\":");
+                append(writer, dataRepresentation.get(property));
+            }
+            writer.write('}');
+            return;
+        }
+        writer.write(dataRepresentation.toJson());
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.metaring.framework.persistence.PersistenceFunctionalitiesManager;
+import com.metaring.framework.rpc.RpcFunctionalitiesManager;
+import com.metaring.framework.rpc.RpcRequest;
+import com.metaring.framework.type.DataRepresentation;
+
+final class FrameworkFunctionalityTestBackend implements FunctionalityTestBackend {
+
+    @Override
+    public CompletableFuture<Void> update(String statement) {
+        return PersistenceFunctionalitiesManager.update(statement).thenAccept(result -> {
+        });
+    }
+
+    @Override
+    public CompletableFuture<DataRepresentation> query(String query) {
+        return PersistenceFunctionalitiesManager.query(query).thenApply(result -> result);
+    }
+
+    @Override
+    public CompletableFuture<DataRepresentation> call(Long id, String name, DataRepresentation param) {
+        return RpcFunctionalitiesManager.call(RpcRequest.create(id, null, name, param)).thenApply(response -> response.getResult());
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.metaring.framework.type.DataRepresentation;
+
+public final class FunctionalityResultCache {
+
+    public static final String SIZE_PROPERTY = "metaring.test.result.cache.size";
+
+    public static final String FUNCTIONALITIES_PROPERTY = "metaring.test.result.cache.functionalities";
+
+    private static final int SIZE = Integer.getInteger(SIZE_PROPERTY, 0);
+
+    private static final List<String> FUNCTIONALITIES = functionalities(System.getProperty(FUNCTIONALITIES_PROPERTY, ""));
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong EVICTIONS = new AtomicLong();
+
+    private static final Map<String, CompletableFuture<DataRepresentation>> CACHE = new LinkedHashMap<String, CompletableFuture<DataRepresentation>>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 4790371939183532815L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<DataRepresentation>> eldest) {
+            if (size() > SIZE) {
+                EVICTIONS.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    static {
+        if (SIZE > 0) {
+            Runtime.getRuntime().addShutdownHook(new Thread() {
+                @Override
+                public void run() {
+                    System.out.println(statistics());
+                }
+            });
+        }
+    }
+
+    private FunctionalityResultCache() {
+    }
+
+    public static boolean isEnabled() {
+        return SIZE > 0;
+    }
+
+    public static boolean isCacheable(String name) {
+        if (SIZE <= 0 || name == null) {
+            return false;
+        }
+        for (String functionality : FUNCTIONALITIES) {
+            if (name.equals(functionality) || name.startsWith(functionality + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> functionalities(String property) {
+        List<String> functionalities = new ArrayList<>();
+        for (String functionality : property.split(",")) {
+            if (!functionality.trim().isEmpty()) {
+                functionalities.add(functionality.trim());
+            }
+        }
+        return Collections.unmodifiableList(functionalities);
+    }
+
+    public static long getHits() {
+        return HITS.get();
+    }
+
+    public static long getMisses() {
+        return MISSES.get();
+    }
+
+    public static long getEvictions() {
+        return EVICTIONS.get();
+    }
+
+    public static int getSize() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    public static String statistics() {
+        long hits = HITS.get();
+        long lookups = hits + MISSES.get();
+        return String.format("Functionality Result Cache: %d lookups, %d hits (%.1f%%), %d misses, %d evictions, %d entries", lookups, hits, lookups == 0 ? 0.0 : hits * 100.0 / lookups, MISSES.get(), EVICTIONS.get(), getSize());
+    }
+
+    static CompletableFuture<DataRepresentation> get(String name, DataRepresentation param, Supplier<CompletableFuture<DataRepresentation>> call) {
+        String key = key(name, param);
+        CompletableFuture<DataRepresentation> result;
+        synchronized (CACHE) {
+            result = CACHE.get(key);
+            if (result != null && !result.isCompletedExceptionally()) {
+                HITS.incrementAndGet();
+                return result.thenApply(value -> value);
+            }
+            MISSES.incrementAndGet();
+            result = new CompletableFuture<>();
+            CACHE.put(key, result);
+        }
+        final CompletableFuture<DataRepresentation> cached = result;
+        CompletableFuture<DataRepresentation> source;
+        try {
+            source = call.get();
+        }
+        catch (Throwable e) {
+            source = new CompletableFuture<>();
+            source.completeExceptionally(e);
+        }
+        source.whenComplete((value, error) -> {
+            if (error != null) {
+                synchronized (CACHE) {
+                    CACHE.remove(key, cached);
+                }
+                cached.completeExceptionally(error);
+            }
+            else {
+                cached.complete(value);
+            }
+        });
+        return cached.thenApply(value -> value);
+    }
+
+    static String key(String name, DataRepresentation param) {
+        StringBuilder key = new StringBuilder(name).append('\u0000');
+        appendCanonical(key, param);
+        return key.toString();
+    }
+
+    private static void appendCanonical(StringBuilder key, DataRepresentation dataRepresentation) {
+        if (dataRepresentation == null || dataRepresentation.isNull()) {
+            key.append("null");
+            return;
+        }
+        if (dataRepresentation.hasLength()) {
+            long length = dataRepresentation.length();
+            key.append('[');
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    key.append(',');
+                }
+                appendCanonical(key, dataRepresentation.get(i));
+            }
+            key.append(']');
+            return;
+        }
+        if (dataRepresentation.hasProperties()) {
+            List<String> properties = new ArrayList<>();
+            for (String property : dataRepresentation.getProperties()) {
+                properties.add(property);
+            }
+            Collections.sort(properties);
+            key.append('{');
+            for (int i = 0; i < properties.size(); i++) {
+                if (i > 0) {
+                    key.append(',');
+                }
+                key.append('"').append(properties.get(i)).append("\":");
+                appendCanonical(key, dataRepresentation.get(properties.get(i)));
+            }
+            key.append('}');
+            return;
+        }
+        key.append(dataRepresentation.toJson());
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.metaring.framework.type.DataRepresentation;
+
+public interface FunctionalityTestBackend {
+
+    public CompletableFuture<Void> update(String statement);
+
+    public CompletableFuture<DataRepresentation> query(String query);
+
+    public CompletableFuture<DataRepresentation> call(Long id, String name, DataRepresentation param);
+
+    public default CompletableFuture<Void> update(String statement, List<Object> parameters) {
+        return update(PersistenceStatement.inline(statement, parameters, isBackslashEscapedInLiterals()));
+    }
+
+    public default CompletableFuture<DataRepresentation> query(String query, List<Object> parameters) {
+        return query(PersistenceStatement.inline(query, parameters, isBackslashEscapedInLiterals()));
+    }
+
+    public default CompletableFuture<Void> batch(List<String> entries) {
+        return PersistenceStatement.updateAll(this, entries, 0);
+    }
+
+    public default boolean isBackslashEscapedInLiterals() {
+        return PersistenceStatement.ESCAPE_BACKSLASH;
+    }
+
+}
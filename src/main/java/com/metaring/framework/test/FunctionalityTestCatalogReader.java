@@ -0,0 +1,118 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+final class FunctionalityTestCatalogReader implements Iterator<FunctionalityTestCatalogReader.Entry>, Closeable {
+
+    private final String source;
+    private final BufferedReader reader;
+    private int lineNumber;
+    private Entry next;
+
+    FunctionalityTestCatalogReader(String source) throws IOException {
+        this.source = source;
+        this.reader = new BufferedReader(new InputStreamReader(open(source), StandardCharsets.UTF_8));
+    }
+
+    private static InputStream open(String source) throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = FunctionalityTestCatalogReader.class.getClassLoader();
+        }
+        InputStream inputStream = classLoader.getResourceAsStream(source.startsWith("/") ? source.substring(1) : source);
+        if (inputStream != null) {
+            return inputStream;
+        }
+        File file = new File(source);
+        if (!file.isFile()) {
+            throw new IOException("Functionality Test Catalog not found in class path or file system: " + source);
+        }
+        return new FileInputStream(file);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("//")) {
+                    continue;
+                }
+                next = new Entry(source, lineNumber, trimmed);
+                return true;
+            }
+            return false;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Entry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Entry entry = next;
+        next = null;
+        return entry;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    static final class Entry {
+
+        private final String source;
+        private final int lineNumber;
+        private final String json;
+
+        private Entry(String source, int lineNumber, String json) {
+            this.source = source;
+            this.lineNumber = lineNumber;
+            this.json = json;
+        }
+
+        String getLocation() {
+            return source + ":" + lineNumber;
+        }
+
+        CatalogFunctionalityTestCase toTestCase() {
+            return CatalogFunctionalityTestCase.parse(json);
+        }
+    }
+}
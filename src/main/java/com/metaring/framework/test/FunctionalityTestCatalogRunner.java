@@ -0,0 +1,103 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.io.IOException;
+
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.model.InitializationError;
+
+public class FunctionalityTestCatalogRunner extends Runner {
+
+    private final Class<?> testClass;
+    private final String[] catalogs;
+    private Description description;
+
+    public FunctionalityTestCatalogRunner(Class<?> testClass) throws InitializationError {
+        FunctionalityTestCatalog catalog = testClass.getAnnotation(FunctionalityTestCatalog.class);
+        if (catalog == null) {
+            throw new InitializationError(testClass.getName() + " must be annotated with @" + FunctionalityTestCatalog.class.getSimpleName());
+        }
+        this.testClass = testClass;
+        this.catalogs = catalog.value();
+    }
+
+    @Override
+    public Description getDescription() {
+        if (description == null) {
+            Description suite = Description.createSuiteDescription(testClass);
+            for (String source : catalogs) {
+                try (FunctionalityTestCatalogReader reader = new FunctionalityTestCatalogReader(source)) {
+                    while (reader.hasNext()) {
+                        suite.addChild(describe(reader.next()));
+                    }
+                }
+                catch (IOException e) {
+                    suite.addChild(Description.createTestDescription(testClass, source));
+                }
+            }
+            description = suite;
+        }
+        return description;
+    }
+
+    @Override
+    public void run(RunNotifier notifier) {
+        for (String source : catalogs) {
+            try (FunctionalityTestCatalogReader reader = new FunctionalityTestCatalogReader(source)) {
+                while (reader.hasNext()) {
+                    run(notifier, reader.next());
+                }
+            }
+            catch (Exception e) {
+                Description catalogDescription = Description.createTestDescription(testClass, source);
+                notifier.fireTestStarted(catalogDescription);
+                notifier.fireTestFailure(new Failure(catalogDescription, e));
+                notifier.fireTestFinished(catalogDescription);
+            }
+        }
+    }
+
+    private void run(RunNotifier notifier, FunctionalityTestCatalogReader.Entry entry) {
+        Description testDescription = describe(entry);
+        notifier.fireTestStarted(testDescription);
+        try {
+            CatalogFunctionalityTestCase testCase = entry.toTestCase();
+            testCase.before();
+            try {
+                testCase.test();
+            }
+            finally {
+                testCase.after();
+            }
+        }
+        catch (Throwable e) {
+            notifier.fireTestFailure(new Failure(testDescription, e));
+        }
+        finally {
+            notifier.fireTestFinished(testDescription);
+        }
+    }
+
+    private Description describe(FunctionalityTestCatalogReader.Entry entry) {
+        return Description.createTestDescription(testClass, entry.getLocation());
+    }
+}
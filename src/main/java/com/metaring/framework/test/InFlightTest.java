@@ -0,0 +1,64 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+public final class InFlightTest {
+
+    private final Class<? extends AbstractFunctionalityTestCase> testCaseClass;
+    private final String name;
+    private final Long id;
+    private final long startNanos;
+    private final PhaseTimings timings;
+
+    InFlightTest(Class<? extends AbstractFunctionalityTestCase> testCaseClass, String name, Long id, PhaseTimings timings) {
+        this.testCaseClass = testCaseClass;
+        this.name = name;
+        this.id = id;
+        this.startNanos = System.nanoTime();
+        this.timings = timings;
+    }
+
+    public Class<? extends AbstractFunctionalityTestCase> getTestCaseClass() {
+        return testCaseClass;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public TestPhase getCurrentPhase() {
+        return timings.getCurrentPhase();
+    }
+
+    public long getCurrentPhaseElapsedNanos() {
+        return System.nanoTime() - timings.getCurrentPhaseStartNanos();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s #%d) in phase %s for %d ms, running for %d ms", testCaseClass.getName(), name, id, getCurrentPhase(), getCurrentPhaseElapsedNanos() / 1_000_000L, getElapsedNanos() / 1_000_000L);
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class InFlightTestTracker {
+
+    private static final Set<InFlightTest> IN_FLIGHT_TESTS = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    private InFlightTestTracker() {
+    }
+
+    public static List<InFlightTest> getInFlightTests() {
+        return Collections.unmodifiableList(new ArrayList<>(IN_FLIGHT_TESTS));
+    }
+
+    public static List<InFlightTest> getInFlightTestsLongerThan(long millis) {
+        List<InFlightTest> inFlightTests = new ArrayList<>();
+        for (InFlightTest inFlightTest : IN_FLIGHT_TESTS) {
+            if (inFlightTest.getElapsedNanos() / 1_000_000L > millis) {
+                inFlightTests.add(inFlightTest);
+            }
+        }
+        return Collections.unmodifiableList(inFlightTests);
+    }
+
+    static InFlightTest register(Class<? extends AbstractFunctionalityTestCase> testCaseClass, String name, Long id, PhaseTimings timings) {
+        InFlightTest inFlightTest = new InFlightTest(testCaseClass, name, id, timings);
+        IN_FLIGHT_TESTS.add(inFlightTest);
+        return inFlightTest;
+    }
+
+    static void deregister(InFlightTest inFlightTest) {
+        IN_FLIGHT_TESTS.remove(inFlightTest);
+    }
+}
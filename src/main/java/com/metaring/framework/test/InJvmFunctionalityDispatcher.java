@@ -0,0 +1,61 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.metaring.framework.type.DataRepresentation;
+
+public final class InJvmFunctionalityDispatcher {
+
+    private static final Map<String, Function<DataRepresentation, DataRepresentation>> FUNCTIONALITIES = new ConcurrentHashMap<>();
+
+    private InJvmFunctionalityDispatcher() {
+    }
+
+    public static void register(String name, Function<DataRepresentation, DataRepresentation> functionality) {
+        FUNCTIONALITIES.put(name, functionality);
+    }
+
+    public static void unregister(String name) {
+        FUNCTIONALITIES.remove(name);
+    }
+
+    public static boolean isRegistered(String name) {
+        return FUNCTIONALITIES.containsKey(name);
+    }
+
+    public static CompletableFuture<DataRepresentation> call(String name, DataRepresentation param) {
+        CompletableFuture<DataRepresentation> result = new CompletableFuture<>();
+        Function<DataRepresentation, DataRepresentation> functionality = FUNCTIONALITIES.get(name);
+        if (functionality == null) {
+            result.completeExceptionally(new IllegalArgumentException("No in-process functionality registered with name " + name));
+            return result;
+        }
+        try {
+            result.complete(functionality.apply(param));
+        }
+        catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+}
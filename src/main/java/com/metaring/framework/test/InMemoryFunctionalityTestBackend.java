@@ -0,0 +1,361 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.metaring.framework.Tools;
+import com.metaring.framework.type.DataRepresentation;
+
+public class InMemoryFunctionalityTestBackend implements FunctionalityTestBackend {
+
+    public static final String JDBC_URL_PROPERTY = "metaring.test.backend.jdbc.url";
+    public static final String DEFAULT_JDBC_URL = "jdbc:h2:mem:metaring-test;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    public static final String STATEMENT_CACHE_SIZE_PROPERTY = "metaring.test.backend.statement.cache.size";
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> preparedStatements;
+
+    public InMemoryFunctionalityTestBackend() throws SQLException {
+        this(System.getProperty(JDBC_URL_PROPERTY, DEFAULT_JDBC_URL));
+    }
+
+    public InMemoryFunctionalityTestBackend(String jdbcUrl) throws SQLException {
+        this.connection = DriverManager.getConnection(jdbcUrl);
+        this.connection.setAutoCommit(true);
+        final int statementCacheSize = Integer.getInteger(STATEMENT_CACHE_SIZE_PROPERTY, 256);
+        this.preparedStatements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= statementCacheSize) {
+                    return false;
+                }
+                try {
+                    eldest.getValue().close();
+                }
+                catch (SQLException e) {
+                }
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public CompletableFuture<Void> update(String statement) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        synchronized (connection) {
+            boolean autoCommit = true;
+            try {
+                autoCommit = connection.getAutoCommit();
+                for (String scriptStatement : PersistenceScript.split(statement)) {
+                    execute(scriptStatement);
+                }
+                result.complete(null);
+            }
+            catch (Throwable e) {
+                rollbackScriptTransaction(autoCommit, e);
+                result.completeExceptionally(e);
+            }
+        }
+        return result;
+    }
+
+    private void rollbackScriptTransaction(boolean autoCommit, Throwable error) {
+        try {
+            if (autoCommit && !connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        }
+        catch (SQLException e) {
+            error.addSuppressed(e);
+        }
+    }
+
+    private void execute(String statement) throws SQLException {
+        if (statement.equalsIgnoreCase(PersistenceScript.BEGIN_TRANSACTION)) {
+            connection.setAutoCommit(false);
+        }
+        else
+            if (statement.equalsIgnoreCase(PersistenceScript.COMMIT_TRANSACTION)) {
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                    connection.setAutoCommit(true);
+                }
+            }
+            else
+                if (statement.equalsIgnoreCase(PersistenceScript.ROLLBACK_TRANSACTION)) {
+                    if (!connection.getAutoCommit()) {
+                        connection.rollback();
+                        connection.setAutoCommit(true);
+                    }
+                }
+                else {
+                    try (Statement jdbcStatement = connection.createStatement()) {
+                        jdbcStatement.execute(statement);
+                    }
+                }
+    }
+
+    @Override
+    public CompletableFuture<DataRepresentation> query(String query) {
+        CompletableFuture<DataRepresentation> result = new CompletableFuture<>();
+        String json;
+        synchronized (connection) {
+            try (Statement jdbcStatement = connection.createStatement(); ResultSet resultSet = jdbcStatement.executeQuery(query)) {
+                json = toJson(resultSet);
+            }
+            catch (Throwable e) {
+                result.completeExceptionally(e);
+                return result;
+            }
+        }
+        try {
+            result.complete(Tools.FACTORY_DATA_REPRESENTATION.fromJson(json));
+        }
+        catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Void> update(String statement, List<Object> parameters) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        synchronized (connection) {
+            try {
+                prepare(statement, parameters).execute();
+                result.complete(null);
+            }
+            catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<DataRepresentation> query(String query, List<Object> parameters) {
+        CompletableFuture<DataRepresentation> result = new CompletableFuture<>();
+        String json;
+        synchronized (connection) {
+            try (ResultSet resultSet = prepare(query, parameters).executeQuery()) {
+                json = toJson(resultSet);
+            }
+            catch (Throwable e) {
+                result.completeExceptionally(e);
+                return result;
+            }
+        }
+        try {
+            result.complete(Tools.FACTORY_DATA_REPRESENTATION.fromJson(json));
+        }
+        catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Void> batch(List<String> entries) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        synchronized (connection) {
+            int i = 0;
+            try {
+                boolean transaction = connection.getAutoCommit();
+                if (transaction) {
+                    connection.setAutoCommit(false);
+                }
+                try {
+                    for (; i < entries.size(); i++) {
+                        executeEntry(entries.get(i));
+                    }
+                    if (transaction) {
+                        connection.commit();
+                    }
+                }
+                catch (Throwable e) {
+                    if (transaction) {
+                        connection.rollback();
+                    }
+                    throw e;
+                }
+                finally {
+                    if (transaction) {
+                        connection.setAutoCommit(true);
+                    }
+                }
+                result.complete(null);
+            }
+            catch (Throwable e) {
+                result.completeExceptionally(i < entries.size() ? new PersistenceBatchException(i, e) : e);
+            }
+        }
+        return result;
+    }
+
+    private void executeEntry(String entry) throws SQLException {
+        if (!PersistenceStatement.isParameterized(entry)) {
+            for (String statement : PersistenceScript.split(entry)) {
+                execute(statement);
+            }
+            return;
+        }
+        PersistenceStatement statement = PersistenceStatement.of(entry);
+        PreparedStatement preparedStatement = prepare(statement.getTemplate(), statement.getParameterRows().get(0));
+        if (statement.getParameterRows().size() == 1) {
+            preparedStatement.execute();
+            return;
+        }
+        preparedStatement.clearBatch();
+        for (List<Object> parameters : statement.getParameterRows()) {
+            bind(preparedStatement, parameters);
+            preparedStatement.addBatch();
+        }
+        preparedStatement.executeBatch();
+    }
+
+    private PreparedStatement prepare(String statement, List<Object> parameters) throws SQLException {
+        PreparedStatement preparedStatement = preparedStatements.get(statement);
+        if (preparedStatement == null || preparedStatement.isClosed()) {
+            preparedStatement = connection.prepareStatement(statement);
+            preparedStatements.put(statement, preparedStatement);
+        }
+        bind(preparedStatement, parameters);
+        return preparedStatement;
+    }
+
+    private static void bind(PreparedStatement preparedStatement, List<Object> parameters) throws SQLException {
+        preparedStatement.clearParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            preparedStatement.setObject(i + 1, parameters.get(i));
+        }
+    }
+
+    @Override
+    public boolean isBackslashEscapedInLiterals() {
+        return false;
+    }
+
+    @Override
+    public CompletableFuture<DataRepresentation> call(Long id, String name, DataRepresentation param) {
+        return InJvmFunctionalityDispatcher.call(name, param);
+    }
+
+    private static String toJson(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columns = metaData.getColumnCount();
+        StringBuilder json = new StringBuilder("[");
+        boolean firstRow = true;
+        while (resultSet.next()) {
+            if (!firstRow) {
+                json.append(',');
+            }
+            firstRow = false;
+            json.append('{');
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    json.append(',');
+                }
+                appendString(json, metaData.getColumnLabel(i));
+                json.append(':');
+                appendValue(json, metaData.getColumnType(i), resultSet, i);
+            }
+            json.append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    private static void appendValue(StringBuilder json, int type, ResultSet resultSet, int column) throws SQLException {
+        switch (type) {
+            case Types.BOOLEAN:
+            case Types.BIT:
+                boolean bool = resultSet.getBoolean(column);
+                json.append(resultSet.wasNull() ? "null" : String.valueOf(bool));
+                return;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                BigDecimal number = resultSet.getBigDecimal(column);
+                json.append(number == null ? "null" : number.toPlainString());
+                return;
+            default:
+                String text = resultSet.getString(column);
+                if (text == null) {
+                    json.append("null");
+                }
+                else {
+                    appendString(json, text);
+                }
+        }
+    }
+
+    private static void appendString(StringBuilder json, String text) {
+        json.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    }
+                    else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import com.metaring.framework.type.DataRepresentation;
+
+final class JsonSnippet {
+
+    static final String SNIPPET_LENGTH_PROPERTY = "metaring.test.report.snippet.length";
+
+    private static final int SNIPPET_LENGTH = Integer.getInteger(SNIPPET_LENGTH_PROPERTY, 1024);
+
+    private static final String TRUNCATED = " ...[truncated]";
+
+    private JsonSnippet() {
+    }
+
+    static String of(DataRepresentation dataRepresentation) {
+        if (dataRepresentation == null) {
+            return "null";
+        }
+        if (SNIPPET_LENGTH <= 0) {
+            return dataRepresentation.toString();
+        }
+        StringBuilder snippet = new StringBuilder();
+        append(snippet, dataRepresentation);
+        return truncate(snippet);
+    }
+
+    static String ofExpected(DataRepresentation expectedJson) {
+        if (expectedJson == null) {
+            return "null";
+        }
+        if (SNIPPET_LENGTH <= 0) {
+            return SpecialTypeEnum.clean(expectedJson.toJson());
+        }
+        StringBuilder snippet = new StringBuilder();
+        append(snippet, expectedJson);
+        return truncate(new StringBuilder(SpecialTypeEnum.clean(snippet.toString())));
+    }
+
+    static String of(String text) {
+        if (text == null || SNIPPET_LENGTH <= 0 || text.length() <= SNIPPET_LENGTH) {
+            return text;
+        }
+        return text.substring(0, SNIPPET_LENGTH) + TRUNCATED;
+    }
+
+    private static String truncate(StringBuilder snippet) {
+        if (snippet.length() <= SNIPPET_LENGTH) {
+            return snippet.toString();
+        }
+        snippet.setLength(SNIPPET_LENGTH);
+        return snippet.append(TRUNCATED).toString();
+    }
+
+    private static void append(StringBuilder snippet, DataRepresentation dataRepresentation) {
+        if (snippet.length() > SNIPPET_LENGTH) {
+            return;
+        }
+        if (dataRepresentation == null || dataRepresentation.isNull()) {
+            snippet.append("null");
+            return;
+        }
+        if (dataRepresentation.hasLength()) {
+            long length = dataRepresentation.length();
+            snippet.append('[');
+            for (int i = 0; i < length && snippet.length() <= SNIPPET_LENGTH; i++) {
+                if (i > 0) {
+                    snippet.append(',');
+                }
+                append(snippet, dataRepresentation.get(i));
+            }
+            snippet.append(']');
+            return;
+        }
+        if (dataRepresentation.hasProperties()) {
+            snippet.append('{');
+            boolean first = true;
+            for (String property : dataRepresentation.getProperties()) {
+                if (snippet.length() > SNIPPET_LENGTH) {
+                    break;
+                }
+                if (!first) {
+                    snippet.append(',');
+                }
+                first = false;
+                snippet.append('"').append(property).append("\":");
+                append(snippet, dataRepresentation.get(property));
+            }
+            snippet.append('}');
+            return;
+        }
+        snippet.append(dataRepresentation.toJson());
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+final class LatencyHistogram {
+
+    private static final int LINEAR_VALUES = 128;
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_EXPONENT = 7;
+    private static final int BUCKETS = LINEAR_VALUES + (63 - FIRST_EXPONENT) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalValue = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalValue.addAndGet(value);
+        long max;
+        while (value > (max = maxValue.get()) && !maxValue.compareAndSet(max, value))
+            ;
+    }
+
+    long getTotalCount() {
+        return totalCount.get();
+    }
+
+    long getMaxValue() {
+        return maxValue.get();
+    }
+
+    double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalValue.get() / count;
+    }
+
+    long getValueAtPercentile(double percentile) {
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= target) {
+                return Math.min(highestEquivalentValue(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_VALUES) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return LINEAR_VALUES + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < LINEAR_VALUES) {
+            return index;
+        }
+        int exponent = (index - LINEAR_VALUES) / SUB_BUCKETS + FIRST_EXPONENT;
+        long subBucket = (index - LINEAR_VALUES) % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lowestValue = (SUB_BUCKETS + subBucket) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.concurrent.TimeUnit;
+
+public final class LoadTestReport {
+
+    private final long durationNanos;
+    private final long requests;
+    private final long errors;
+    private final double meanNanos;
+    private final long p50Nanos;
+    private final long p95Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    LoadTestReport(long durationNanos, long errors, LatencyHistogram histogram) {
+        this.durationNanos = durationNanos;
+        this.requests = histogram.getTotalCount();
+        this.errors = errors;
+        this.meanNanos = histogram.getMean();
+        this.p50Nanos = histogram.getValueAtPercentile(50);
+        this.p95Nanos = histogram.getValueAtPercentile(95);
+        this.p99Nanos = histogram.getValueAtPercentile(99);
+        this.maxNanos = histogram.getMaxValue();
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getThroughput() {
+        return durationNanos == 0 ? 0 : requests / (durationNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public double getErrorRate() {
+        return requests == 0 ? 0 : errors / (double) requests;
+    }
+
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP95Nanos() {
+        return p95Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Load Test: %d requests in %.1f s, %.1f req/s, error rate %.2f%% - latency ms: mean %.2f, p50 %.2f, p95 %.2f, p99 %.2f, max %.2f", requests, durationNanos / 1e9, getThroughput(), getErrorRate() * 100, meanNanos / 1e6, p50Nanos / 1e6, p95Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6);
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+public final class LoadTestRunner {
+
+    public static final String CONCURRENCY_PROPERTY = "metaring.test.load.concurrency";
+    public static final String DURATION_PROPERTY = "metaring.test.load.duration";
+    public static final String RATE_PROPERTY = "metaring.test.load.rate";
+
+    private final int concurrency;
+    private final long durationNanos;
+    private final double targetRate;
+
+    public LoadTestRunner() {
+        this(Integer.getInteger(CONCURRENCY_PROPERTY, VirtualThreads.isEnabled() ? 10_000 : Runtime.getRuntime().availableProcessors()), Long.getLong(DURATION_PROPERTY, 60L), Double.parseDouble(System.getProperty(RATE_PROPERTY, "0")));
+    }
+
+    public LoadTestRunner(int concurrency, long durationSeconds, double targetRate) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1, found " + concurrency);
+        }
+        if (durationSeconds < 1) {
+            throw new IllegalArgumentException("Duration must be at least 1 second, found " + durationSeconds);
+        }
+        this.concurrency = concurrency;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.targetRate = targetRate;
+    }
+
+    public LoadTestReport run(String packagePrefix) {
+        return run(TestCaseDiscovery.discover(packagePrefix));
+    }
+
+    public LoadTestReport run(Collection<Class<? extends AbstractFunctionalityTestCase>> testCaseClasses) {
+        List<AbstractFunctionalityTestCase> testCases = new ArrayList<>(testCaseClasses.size());
+        for (Class<? extends AbstractFunctionalityTestCase> testCaseClass : testCaseClasses) {
+            try {
+                testCases.add(testCaseClass.getConstructor().newInstance());
+            }
+            catch (Exception e) {
+                throw new RuntimeException("Error while instantiating Test Case " + testCaseClass.getName(), e);
+            }
+        }
+        if (testCases.isEmpty()) {
+            throw new IllegalArgumentException("No Test Cases to replay");
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong requestIds = new AtomicLong();
+        Semaphore permits = new Semaphore(concurrency);
+        long intervalNanos = targetRate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / targetRate) : 0;
+
+        ExecutorService workers = VirtualThreads.newWorkers("metaring-test-load", concurrency);
+
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+        long issued = 0;
+        try {
+            while (System.nanoTime() < deadline) {
+                if (intervalNanos > 0) {
+                    long next = start + issued * intervalNanos;
+                    long wait = next - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                        continue;
+                    }
+                }
+                long requestStart = intervalNanos > 0 ? start + issued * intervalNanos : System.nanoTime();
+                permits.acquire();
+                AbstractFunctionalityTestCase testCase = testCases.get((int) (issued++ % testCases.size()));
+                CompletableFuture<List<String>> call;
+                if (VirtualThreads.isEnabled()) {
+                    call = CompletableFuture.supplyAsync(() -> testCase.performCall(requestIds.incrementAndGet(), new PhaseTimings(), false).join(), workers);
+                }
+                else {
+                    call = CompletableFuture.supplyAsync(() -> testCase.performCall(requestIds.incrementAndGet(), new PhaseTimings(), false), workers).thenCompose(Function.identity());
+                }
+                call.whenComplete((errorMessages, error) -> {
+                    histogram.record(System.nanoTime() - requestStart);
+                    if (error != null || !errorMessages.isEmpty()) {
+                        errors.incrementAndGet();
+                    }
+                    permits.release();
+                });
+            }
+            permits.acquire(concurrency);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running Load Test", e);
+        }
+        finally {
+            workers.shutdown();
+        }
+        return new LoadTestReport(System.nanoTime() - start, errors.get(), histogram);
+    }
+
+    public static void main(String[] args) {
+        LoadTestReport report = new LoadTestRunner().run(args.length > 0 ? args[0] : "");
+        System.out.println(report);
+        System.exit(report.getErrors() == 0 ? 0 : 1);
+    }
+}
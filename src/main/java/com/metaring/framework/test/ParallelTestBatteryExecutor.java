@@ -0,0 +1,166 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import com.metaring.framework.util.StringUtil;
+
+public final class ParallelTestBatteryExecutor {
+
+    public static final String CONCURRENCY_PROPERTY = "metaring.test.battery.concurrency";
+
+    private static final int VIRTUAL_THREADS_CONCURRENCY = 256;
+
+    private final int concurrency;
+
+    public ParallelTestBatteryExecutor() {
+        this(Integer.getInteger(CONCURRENCY_PROPERTY, VirtualThreads.isEnabled() ? VIRTUAL_THREADS_CONCURRENCY : Runtime.getRuntime().availableProcessors()));
+    }
+
+    public ParallelTestBatteryExecutor(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1, found " + concurrency);
+        }
+        this.concurrency = concurrency;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public List<TestOutcome> execute(String packagePrefix) {
+        return execute(packagePrefix, TestRunIndex.defaultSelection());
+    }
+
+    public List<TestOutcome> execute(String packagePrefix, TestSelection selection) {
+        List<Class<? extends AbstractFunctionalityTestCase>> testCaseClasses = TestCaseDiscovery.discover(packagePrefix);
+        TestRunIndex index = TestRunIndex.load();
+        if (selection != TestSelection.ALL) {
+            testCaseClasses = index.select(testCaseClasses, selection, TestRunIndex.defaultChangedPackages());
+        }
+        if (selection != TestSelection.SLOWEST_FIRST || TestBatteryScheduler.getShardCount() > 1) {
+            testCaseClasses = TestBatteryScheduler.schedule(testCaseClasses, index);
+        }
+        return execute(testCaseClasses);
+    }
+
+    public List<TestOutcome> execute(Collection<Class<? extends AbstractFunctionalityTestCase>> testCaseClasses) {
+        Semaphore permits = new Semaphore(concurrency, true);
+        List<CompletableFuture<TestOutcome>> futures = new ArrayList<>(testCaseClasses.size());
+        ExecutorService workers = VirtualThreads.newWorkers("metaring-test-battery", Math.min(concurrency, testCaseClasses.size() + 1));
+        try {
+            for (Class<? extends AbstractFunctionalityTestCase> testCaseClass : testCaseClasses) {
+                permits.acquire();
+                CompletableFuture<TestOutcome> future = VirtualThreads.isEnabled() ? CompletableFuture.supplyAsync(() -> runTestCase(testCaseClass, workers, permits, concurrency).join(), workers) : CompletableFuture.supplyAsync(() -> runTestCase(testCaseClass, workers, permits, concurrency), workers).thenCompose(Function.identity());
+                futures.add(future);
+            }
+            List<TestOutcome> outcomes = new ArrayList<>(futures.size());
+            for (CompletableFuture<TestOutcome> future : futures) {
+                outcomes.add(future.join());
+            }
+            return outcomes;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running Tests Battery", e);
+        }
+        finally {
+            workers.shutdown();
+        }
+    }
+
+    static CompletableFuture<TestOutcome> runTestCase(Class<? extends AbstractFunctionalityTestCase> testCaseClass, Executor workers, Semaphore permits, int concurrency) {
+        AbstractFunctionalityTestCase testCase = null;
+        try {
+            testCase = testCaseClass.getConstructor().newInstance();
+        }
+        catch (Throwable e) {
+            permits.release();
+            String errorMessageFormat = "Test Case instantiation returned the following error:\n\n%s";
+            return CompletableFuture.completedFuture(new TestOutcome(testCaseClass, null, null, null, null, Collections.singletonList(String.format(errorMessageFormat, StringUtil.fromThrowableToString(e))), null));
+        }
+        final AbstractFunctionalityTestCase instance = testCase;
+        final int heldPermits = holdPermits(instance, permits, concurrency);
+        CompletableFuture<TestOutcome> outcome;
+        try {
+            instance.before();
+            outcome = instance.runAsync().toCompletableFuture();
+        }
+        catch (Throwable e) {
+            outcome = CompletableFuture.completedFuture(new TestOutcome(testCaseClass, instance.getCaseGroup(), instance.getName(), instance.getId(), instance.getTitle(), instance.getDescription(), Collections.singletonList(StringUtil.fromThrowableToString(e)), null));
+        }
+        return outcome.handleAsync((result, error) -> {
+            List<String> errorMessages = new ArrayList<>();
+            if (result != null) {
+                errorMessages.addAll(result.getErrorMessages());
+            }
+            if (error != null) {
+                errorMessages.add(StringUtil.fromThrowableToString(error));
+            }
+            try {
+                instance.after();
+            }
+            catch (Throwable e) {
+                errorMessages.add(StringUtil.fromThrowableToString(e));
+            }
+            return new TestOutcome(testCaseClass, instance.getCaseGroup(), instance.getName(), instance.getId(), instance.getTitle(), instance.getDescription(), errorMessages, result != null ? result.getTimings() : null);
+        }, workers).whenComplete((result, error) -> permits.release(heldPermits));
+    }
+
+    private static int holdPermits(AbstractFunctionalityTestCase testCase, Semaphore permits, int concurrency) {
+        boolean rollbackAfterTest;
+        try {
+            rollbackAfterTest = testCase.isRollbackAfterTest();
+        }
+        catch (Throwable e) {
+            rollbackAfterTest = false;
+        }
+        if (!rollbackAfterTest || concurrency == 1) {
+            return 1;
+        }
+        permits.release();
+        permits.acquireUninterruptibly(concurrency);
+        return concurrency;
+    }
+
+    public static void main(String[] args) {
+        String packagePrefix = args.length > 0 ? args[0] : "";
+        ParallelTestBatteryExecutor executor = args.length > 1 ? new ParallelTestBatteryExecutor(Integer.parseInt(args[1])) : new ParallelTestBatteryExecutor();
+        long start = System.nanoTime();
+        List<TestOutcome> outcomes = executor.execute(packagePrefix);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+        int failures = 0;
+        for (TestOutcome outcome : outcomes) {
+            if (!outcome.isSuccessful()) {
+                failures++;
+                outcome.printErrors(System.err);
+            }
+        }
+        System.out.println(String.format("Tests Battery shard %d/%d: %d cases, %d failed, concurrency %d, %d ms", TestBatteryScheduler.getShardIndex() + 1, TestBatteryScheduler.getShardCount(), outcomes.size(), failures, executor.getConcurrency(), elapsedMillis));
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
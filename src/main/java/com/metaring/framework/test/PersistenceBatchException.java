@@ -0,0 +1,34 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+public class PersistenceBatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 3871046201945173162L;
+
+    private final int statementIndex;
+
+    public PersistenceBatchException(int statementIndex, Throwable cause) {
+        super("Persistence batch statement " + statementIndex + " failed", cause);
+        this.statementIndex = statementIndex;
+    }
+
+    public int getStatementIndex() {
+        return statementIndex;
+    }
+}
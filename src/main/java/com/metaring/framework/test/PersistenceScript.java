@@ -0,0 +1,79 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.metaring.framework.type.series.TextSeries;
+
+final class PersistenceScript {
+
+    static final String BEGIN_TRANSACTION = System.getProperty("metaring.test.persistence.begin", "START TRANSACTION");
+    static final String COMMIT_TRANSACTION = System.getProperty("metaring.test.persistence.commit", "COMMIT");
+    static final String ROLLBACK_TRANSACTION = System.getProperty("metaring.test.persistence.rollback", "ROLLBACK");
+
+    static final String EXISTENCE_CHECK_ALIAS = "result";
+
+    private static final String STATEMENT_SEPARATOR = ";\n";
+    private static final String EXISTENCE_CHECK_FORMAT = "(CASE WHEN EXISTS (%s) THEN 'YES' ELSE 'NO' END) as %s";
+
+    private PersistenceScript() {
+    }
+
+    static List<String> statements(TextSeries textSeries) {
+        if (textSeries == null) {
+            return null;
+        }
+        List<String> statements = new ArrayList<>(textSeries.size());
+        for (String statement : textSeries) {
+            statements.add(statement);
+        }
+        return Collections.unmodifiableList(statements);
+    }
+
+    static List<String> split(String script) {
+        List<String> statements = new ArrayList<>();
+        for (String statement : script.split(STATEMENT_SEPARATOR)) {
+            if (!statement.trim().isEmpty()) {
+                statements.add(statement.trim());
+            }
+        }
+        return statements;
+    }
+
+    static String existenceCheck(String query) {
+        return "SELECT " + String.format(EXISTENCE_CHECK_FORMAT, query, EXISTENCE_CHECK_ALIAS);
+    }
+
+    static String existenceChecks(List<String> queries) {
+        StringBuilder script = new StringBuilder("SELECT ");
+        for (int i = 0; i < queries.size(); i++) {
+            if (i > 0) {
+                script.append(", ");
+            }
+            script.append(String.format(EXISTENCE_CHECK_FORMAT, queries.get(i), existenceCheckAlias(i)));
+        }
+        return script.toString();
+    }
+
+    static String existenceCheckAlias(int i) {
+        return EXISTENCE_CHECK_ALIAS + "_" + i;
+    }
+}
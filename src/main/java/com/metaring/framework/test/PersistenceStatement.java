@@ -0,0 +1,281 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.metaring.framework.Tools;
+import com.metaring.framework.type.DataRepresentation;
+
+final class PersistenceStatement {
+
+    private static final String STATEMENT_PROPERTY = "statement";
+    private static final String PARAMETERS_PROPERTY = "parameters";
+
+    static final String ESCAPE_BACKSLASH_PROPERTY = "metaring.test.persistence.literal.escape.backslash";
+
+    static final boolean ESCAPE_BACKSLASH = Boolean.parseBoolean(System.getProperty(ESCAPE_BACKSLASH_PROPERTY, "true"));
+
+    private static final Map<String, PersistenceStatement> PARSED = new ConcurrentHashMap<>();
+
+    private static final PersistenceStatement NOT_PARAMETERIZED = new PersistenceStatement(null, Collections.emptyList());
+
+    private final String template;
+    private final List<List<Object>> parameterRows;
+
+    private PersistenceStatement(String template, List<List<Object>> parameterRows) {
+        this.template = template;
+        this.parameterRows = parameterRows;
+    }
+
+    static boolean isParameterized(String entry) {
+        return entry != null && entry.trim().startsWith("{") && PARSED.computeIfAbsent(entry, PersistenceStatement::parse) != NOT_PARAMETERIZED;
+    }
+
+    static PersistenceStatement of(String entry) {
+        if (!isParameterized(entry)) {
+            return new PersistenceStatement(entry, Collections.singletonList(Collections.emptyList()));
+        }
+        return PARSED.get(entry);
+    }
+
+    private static PersistenceStatement parse(String entry) {
+        DataRepresentation json;
+        try {
+            json = Tools.FACTORY_DATA_REPRESENTATION.fromJson(entry);
+        }
+        catch (Exception e) {
+            return NOT_PARAMETERIZED;
+        }
+        DataRepresentation statement = json != null && json.hasProperties() ? json.get(STATEMENT_PROPERTY) : null;
+        if (statement == null || statement.isNull()) {
+            return NOT_PARAMETERIZED;
+        }
+        String template = CatalogFunctionalityTestCase.unquote(statement.toJson());
+        DataRepresentation parameters = json.get(PARAMETERS_PROPERTY);
+        if (parameters == null || parameters.isNull()) {
+            return new PersistenceStatement(template, Collections.singletonList(Collections.emptyList()));
+        }
+        if (!parameters.hasLength()) {
+            throw new IllegalArgumentException("Parameterized statement " + PARAMETERS_PROPERTY + " must be an array:\n\n" + JsonSnippet.of(entry));
+        }
+        long length = parameters.length();
+        boolean rows = length > 0 && parameters.get(0) != null && parameters.get(0).hasLength();
+        List<List<Object>> parameterRows = new ArrayList<>();
+        if (rows) {
+            for (int i = 0; i < length; i++) {
+                parameterRows.add(values(parameters.get(i)));
+            }
+        }
+        else {
+            parameterRows.add(values(parameters));
+        }
+        return new PersistenceStatement(template, Collections.unmodifiableList(parameterRows));
+    }
+
+    private static List<Object> values(DataRepresentation row) {
+        if (row == null || !row.hasLength()) {
+            throw new IllegalArgumentException("Parameterized statement rows must be arrays");
+        }
+        long length = row.length();
+        List<Object> values = new ArrayList<>((int) length);
+        for (int i = 0; i < length; i++) {
+            values.add(value(row.get(i)));
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    private static Object value(DataRepresentation value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String json = value.toJson();
+        if (json.startsWith("\"")) {
+            return CatalogFunctionalityTestCase.unquote(json);
+        }
+        if (json.equals("true") || json.equals("false")) {
+            return Boolean.valueOf(json);
+        }
+        try {
+            return new BigDecimal(json);
+        }
+        catch (NumberFormatException e) {
+            return json;
+        }
+    }
+
+    String getTemplate() {
+        return template;
+    }
+
+    List<List<Object>> getParameterRows() {
+        return parameterRows;
+    }
+
+    List<Object> getSingleParameterRow() {
+        if (parameterRows.size() != 1) {
+            throw new IllegalArgumentException("Statement\n\n" + template + "\n\nmust bind exactly one parameter row, found " + parameterRows.size());
+        }
+        return parameterRows.get(0);
+    }
+
+    static CompletableFuture<Void> update(FunctionalityTestBackend backend, String entry) {
+        if (!isParameterized(entry)) {
+            return backend.update(entry);
+        }
+        PersistenceStatement statement = of(entry);
+        return statement.update(backend, 0);
+    }
+
+    static CompletableFuture<Void> updateAll(FunctionalityTestBackend backend, List<String> entries, int i) {
+        if (i >= entries.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> update;
+        try {
+            update = update(backend, entries.get(i));
+        }
+        catch (Exception e) {
+            update = new CompletableFuture<>();
+            update.completeExceptionally(e);
+        }
+        return update.handle((result, error) -> error).thenCompose(error -> {
+            if (error == null) {
+                return updateAll(backend, entries, i + 1);
+            }
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new PersistenceBatchException(i, Timeouts.unwrap(error)));
+            return failed;
+        });
+    }
+
+    private CompletableFuture<Void> update(FunctionalityTestBackend backend, int i) {
+        if (i >= parameterRows.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return backend.update(template, parameterRows.get(i)).thenCompose(nothing -> update(backend, i + 1));
+    }
+
+    static CompletableFuture<DataRepresentation> existenceCheck(FunctionalityTestBackend backend, String entry) {
+        if (!isParameterized(entry)) {
+            return backend.query(PersistenceScript.existenceCheck(entry));
+        }
+        PersistenceStatement statement = of(entry);
+        return backend.query(PersistenceScript.existenceCheck(statement.template), statement.getSingleParameterRow());
+    }
+
+    static CompletableFuture<DataRepresentation> existenceChecks(FunctionalityTestBackend backend, List<String> entries) {
+        boolean parameterized = false;
+        for (String entry : entries) {
+            parameterized |= isParameterized(entry);
+        }
+        if (!parameterized) {
+            return backend.query(PersistenceScript.existenceChecks(entries));
+        }
+        List<String> templates = new ArrayList<>(entries.size());
+        List<Object> parameters = new ArrayList<>();
+        for (String entry : entries) {
+            PersistenceStatement statement = of(entry);
+            templates.add(statement.template);
+            parameters.addAll(statement.getSingleParameterRow());
+        }
+        return backend.query(PersistenceScript.existenceChecks(templates), parameters);
+    }
+
+    static String inline(String entry) {
+        return inline(entry, ESCAPE_BACKSLASH);
+    }
+
+    static String inline(String entry, boolean escapeBackslash) {
+        if (!isParameterized(entry)) {
+            return entry;
+        }
+        PersistenceStatement statement = of(entry);
+        StringBuilder inlined = new StringBuilder();
+        for (List<Object> parameters : statement.parameterRows) {
+            if (inlined.length() > 0) {
+                inlined.append(";\n");
+            }
+            inlined.append(inline(statement.template, parameters, escapeBackslash));
+        }
+        return inlined.toString();
+    }
+
+    static String inline(String template, List<Object> parameters) {
+        return inline(template, parameters, ESCAPE_BACKSLASH);
+    }
+
+    static String inline(String template, List<Object> parameters, boolean escapeBackslash) {
+        if (parameters == null || parameters.isEmpty()) {
+            return template;
+        }
+        StringBuilder inlined = new StringBuilder(template.length() + parameters.size() * 8);
+        int parameter = 0;
+        boolean quoted = false;
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (quoted && c == '\\' && escapeBackslash && i + 1 < template.length()) {
+                inlined.append(c).append(template.charAt(++i));
+                continue;
+            }
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c != '?' || quoted) {
+                inlined.append(c);
+                continue;
+            }
+            if (parameter >= parameters.size()) {
+                throw new IllegalArgumentException("Statement\n\n" + template + "\n\nhas more placeholders than the " + parameters.size() + " bound parameters");
+            }
+            appendLiteral(inlined, parameters.get(parameter++), escapeBackslash);
+        }
+        if (parameter != parameters.size()) {
+            throw new IllegalArgumentException("Statement\n\n" + template + "\n\nhas " + parameter + " placeholders but " + parameters.size() + " bound parameters");
+        }
+        return inlined.toString();
+    }
+
+    private static void appendLiteral(StringBuilder inlined, Object value, boolean escapeBackslash) {
+        if (value == null) {
+            inlined.append("NULL");
+        }
+        else
+            if (value instanceof BigDecimal) {
+                inlined.append(((BigDecimal) value).toPlainString());
+            }
+            else
+                if (value instanceof Number) {
+                    inlined.append(value);
+                }
+                else
+                    if (value instanceof Boolean) {
+                        inlined.append(((Boolean) value) ? "TRUE" : "FALSE");
+                    }
+                    else {
+                        String text = escapeBackslash ? value.toString().replace("\\", "\\\\") : value.toString();
+                        inlined.append('\'').append(text.replace("'", "''")).append('\'');
+                    }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.Arrays;
+
+public final class PhaseTimings {
+
+    private static final TestPhase[] PHASES = TestPhase.values();
+
+    private final long[] nanos;
+    private volatile TestPhase currentPhase;
+    private volatile long currentPhaseStartNanos = System.nanoTime();
+
+    PhaseTimings() {
+        this(new long[PHASES.length]);
+    }
+
+    private PhaseTimings(long[] nanos) {
+        this.nanos = nanos;
+    }
+
+    void enter(TestPhase phase) {
+        currentPhaseStartNanos = System.nanoTime();
+        currentPhase = phase;
+    }
+
+    TestPhase getCurrentPhase() {
+        return currentPhase;
+    }
+
+    long getCurrentPhaseStartNanos() {
+        return currentPhaseStartNanos;
+    }
+
+    void record(TestPhase phase, long elapsedNanos) {
+        nanos[phase.ordinal()] += elapsedNanos;
+    }
+
+    PhaseTimings snapshot() {
+        return new PhaseTimings(Arrays.copyOf(nanos, nanos.length));
+    }
+
+    public long getNanos(TestPhase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (long phaseNanos : nanos) {
+            total += phaseNanos;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder string = new StringBuilder();
+        for (TestPhase phase : PHASES) {
+            if (string.length() > 0) {
+                string.append(", ");
+            }
+            string.append(phase).append(": ").append(nanos[phase.ordinal()] / 1_000_000.0).append(" ms");
+        }
+        return string.toString();
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+final class PhaseTimingsReporter {
+
+    static final String REPORT_PROPERTY = "metaring.test.timings.report";
+    static final String REPORT_DIRECTORY_PROPERTY = "metaring.test.report.dir";
+    static final String DEFAULT_REPORT_DIRECTORY = "target/metaring-test-reports";
+
+    private final File file;
+    private BufferedWriter writer;
+
+    private PhaseTimingsReporter(File file) {
+        this.file = file;
+    }
+
+    static PhaseTimingsReporter create() {
+        if (!Boolean.getBoolean(REPORT_PROPERTY)) {
+            return null;
+        }
+        File directory = reportDirectory();
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        final PhaseTimingsReporter reporter = new PhaseTimingsReporter(new File(directory, "phase-timings-" + timestamp + ".csv"));
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                reporter.close();
+            }
+        });
+        return reporter;
+    }
+
+    static File reportDirectory() {
+        return new File(System.getProperty(REPORT_DIRECTORY_PROPERTY, DEFAULT_REPORT_DIRECTORY));
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    synchronized void record(TestOutcome outcome) {
+        try {
+            if (writer == null) {
+                file.getParentFile().mkdirs();
+                writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+                writer.write("class,functionality,id,successful");
+                for (TestPhase phase : TestPhase.values()) {
+                    writer.write("," + phase.name().toLowerCase() + "_ns");
+                }
+                writer.write(",total_ns");
+                writer.newLine();
+            }
+            PhaseTimings timings = outcome.getTimings();
+            writer.write(csv(outcome.getTestCaseClass().getName()));
+            writer.write(",");
+            writer.write(csv(outcome.getName()));
+            writer.write(",");
+            writer.write(String.valueOf(outcome.getId()));
+            writer.write(",");
+            writer.write(String.valueOf(outcome.isSuccessful()));
+            for (TestPhase phase : TestPhase.values()) {
+                writer.write(",");
+                writer.write(String.valueOf(timings.getNanos(phase)));
+            }
+            writer.write(",");
+            writer.write(String.valueOf(timings.getTotalNanos()));
+            writer.newLine();
+            writer.flush();
+        }
+        catch (IOException e) {
+            System.err.println("Exception while writing Phase Timings report " + file + ":\n\n");
+            e.printStackTrace();
+        }
+    }
+
+    synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+        writer = null;
+    }
+
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+final class PropertyPath {
+
+    private final PropertyPath parent;
+    private final String property;
+    private final int index;
+
+    private PropertyPath(PropertyPath parent, String property, int index) {
+        this.parent = parent;
+        this.property = property;
+        this.index = index;
+    }
+
+    static PropertyPath root(String property) {
+        return new PropertyPath(null, property, -1);
+    }
+
+    PropertyPath property(String property) {
+        return new PropertyPath(this, property, -1);
+    }
+
+    PropertyPath index(int index) {
+        return new PropertyPath(this, null, index);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder path = new StringBuilder();
+        appendTo(path);
+        return path.toString();
+    }
+
+    private void appendTo(StringBuilder path) {
+        if (parent != null) {
+            parent.appendTo(path);
+        }
+        if (property == null) {
+            path.append('[').append(index).append(']');
+        }
+        else {
+            if (parent != null) {
+                path.append('.');
+            }
+            path.append(property);
+        }
+    }
+}
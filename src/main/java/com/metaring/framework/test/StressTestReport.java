@@ -0,0 +1,120 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class StressTestReport {
+
+    private final Class<? extends AbstractFunctionalityTestCase> testCaseClass;
+    private final long invocations;
+    private final long failures;
+    private final long durationNanos;
+    private final List<Response> responses;
+    private final List<String> epilogueErrorMessages;
+
+    StressTestReport(Class<? extends AbstractFunctionalityTestCase> testCaseClass, long invocations, long failures, long durationNanos, List<Response> responses, List<String> epilogueErrorMessages) {
+        this.testCaseClass = testCaseClass;
+        this.invocations = invocations;
+        this.failures = failures;
+        this.durationNanos = durationNanos;
+        List<Response> sorted = new ArrayList<>(responses);
+        sorted.sort((first, second) -> Long.compare(second.count, first.count));
+        this.responses = Collections.unmodifiableList(sorted);
+        this.epilogueErrorMessages = epilogueErrorMessages == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(epilogueErrorMessages));
+    }
+
+    public Class<? extends AbstractFunctionalityTestCase> getTestCaseClass() {
+        return testCaseClass;
+    }
+
+    public long getInvocations() {
+        return invocations;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public List<Response> getResponses() {
+        return responses;
+    }
+
+    public List<String> getEpilogueErrorMessages() {
+        return epilogueErrorMessages;
+    }
+
+    public boolean isDivergent() {
+        return responses.size() > 1;
+    }
+
+    public boolean isSuccessful() {
+        return failures == 0 && epilogueErrorMessages.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Stress Test %s: %d invocations, %d failed, %d distinct responses, %d ms", testCaseClass.getName(), invocations, failures, responses.size(), durationNanos / 1_000_000L));
+        for (Response response : responses) {
+            report.append(String.format("\n\n%d x %s:\n%s", response.count, response.isSuccessful() ? "matching" : "NOT matching", response.snippet));
+            for (String errorMessage : response.errorMessages) {
+                report.append("\n- ").append(errorMessage);
+            }
+        }
+        for (String errorMessage : epilogueErrorMessages) {
+            report.append("\n\nEpilogue: ").append(errorMessage);
+        }
+        return report.toString();
+    }
+
+    public static final class Response {
+
+        private final String snippet;
+        private final List<String> errorMessages;
+        private final long count;
+
+        Response(String snippet, List<String> errorMessages, long count) {
+            this.snippet = snippet;
+            this.errorMessages = errorMessages;
+            this.count = count;
+        }
+
+        public String getSnippet() {
+            return snippet;
+        }
+
+        public List<String> getErrorMessages() {
+            return errorMessages;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public boolean isSuccessful() {
+            return errorMessages.isEmpty();
+        }
+    }
+}
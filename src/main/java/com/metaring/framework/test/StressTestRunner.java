@@ -0,0 +1,181 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.metaring.framework.type.DataRepresentation;
+import com.metaring.framework.util.StringUtil;
+
+public final class StressTestRunner {
+
+    public static final String INVOCATIONS_PROPERTY = "metaring.test.stress.invocations";
+    public static final String EPILOGUE_PROPERTY = "metaring.test.stress.epilogue";
+
+    private static final AtomicLong REQUEST_IDS = new AtomicLong();
+
+    private final int invocations;
+    private final boolean epilogue;
+
+    public StressTestRunner() {
+        this(Integer.getInteger(INVOCATIONS_PROPERTY, 100), Boolean.getBoolean(EPILOGUE_PROPERTY));
+    }
+
+    public StressTestRunner(int invocations, boolean epilogue) {
+        if (invocations < 1) {
+            throw new IllegalArgumentException("Invocations must be at least 1, found " + invocations);
+        }
+        this.invocations = invocations;
+        this.epilogue = epilogue;
+    }
+
+    public StressTestReport run(Class<? extends AbstractFunctionalityTestCase> testCaseClass) {
+        AbstractFunctionalityTestCase testCase;
+        try {
+            testCase = testCaseClass.getConstructor().newInstance();
+        }
+        catch (Exception e) {
+            throw new RuntimeException("Error while instantiating Test Case " + testCaseClass.getName(), e);
+        }
+
+        testCase.before();
+        ExecutorService workers = VirtualThreads.newWorkers("metaring-test-stress", invocations);
+        try {
+            List<String> preambleErrorMessages = testCase.performPreambleOnly().join();
+            if (!preambleErrorMessages.isEmpty()) {
+                return new StressTestReport(testCaseClass, 0, 0, 0, Collections.emptyList(), preambleErrorMessages);
+            }
+
+            Map<String, ResponseCounter> responses = new ConcurrentHashMap<>();
+            AtomicLong failures = new AtomicLong();
+            List<CompletableFuture<Void>> calls = new ArrayList<>(invocations);
+            CountDownLatch startSignal = new CountDownLatch(1);
+            for (int i = 0; i < invocations; i++) {
+                long requestId = REQUEST_IDS.incrementAndGet();
+                calls.add(CompletableFuture.supplyAsync(() -> {
+                    await(startSignal);
+                    return testCase.invoke(requestId);
+                }, workers).thenCompose(Function.identity()).handle((result, error) -> {
+                    String key;
+                    String snippet;
+                    List<String> errorMessages;
+                    if (error != null) {
+                        Throwable cause = Timeouts.unwrap(error);
+                        snippet = cause.getClass().getName() + ": " + cause.getMessage();
+                        key = "error:" + snippet;
+                        errorMessages = Collections.singletonList(JsonSnippet.of(StringUtil.fromThrowableToString(cause)));
+                    }
+                    else {
+                        String json = toJson(result);
+                        key = TestRunIndex.hash(json);
+                        snippet = JsonSnippet.of(result);
+                        errorMessages = null;
+                    }
+                    ResponseCounter counter = responses.computeIfAbsent(key, k -> new ResponseCounter(snippet));
+                    if (errorMessages == null) {
+                        errorMessages = counter.verify(testCase, result);
+                    }
+                    else {
+                        counter.errorMessages = errorMessages;
+                    }
+                    counter.count.incrementAndGet();
+                    if (!errorMessages.isEmpty()) {
+                        failures.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            long start = System.nanoTime();
+            startSignal.countDown();
+            CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[calls.size()])).join();
+            long durationNanos = System.nanoTime() - start;
+
+            List<String> epilogueErrorMessages = epilogue ? testCase.performEpilogueOnly().join() : Collections.emptyList();
+            List<StressTestReport.Response> distinctResponses = new ArrayList<>(responses.size());
+            for (ResponseCounter counter : responses.values()) {
+                distinctResponses.add(new StressTestReport.Response(counter.snippet, counter.errorMessages, counter.count.get()));
+            }
+            return new StressTestReport(testCaseClass, invocations, failures.get(), durationNanos, distinctResponses, epilogueErrorMessages);
+        }
+        finally {
+            workers.shutdown();
+            testCase.after();
+        }
+    }
+
+    private static void await(CountDownLatch startSignal) {
+        try {
+            startSignal.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private static String toJson(DataRepresentation result) {
+        return result == null ? "null" : result.toJson();
+    }
+
+    private static final class ResponseCounter {
+
+        private final String snippet;
+        private final AtomicLong count = new AtomicLong();
+        private volatile List<String> errorMessages;
+
+        private ResponseCounter(String snippet) {
+            this.snippet = snippet;
+        }
+
+        private List<String> verify(AbstractFunctionalityTestCase testCase, DataRepresentation result) {
+            List<String> verified = errorMessages;
+            if (verified == null) {
+                synchronized (this) {
+                    verified = errorMessages;
+                    if (verified == null) {
+                        verified = errorMessages = testCase.assertResult(result);
+                    }
+                }
+            }
+            return verified;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: StressTestRunner <test case class> [invocations]");
+            System.exit(2);
+        }
+        Class<? extends AbstractFunctionalityTestCase> testCaseClass = (Class<? extends AbstractFunctionalityTestCase>) Class.forName(args[0]);
+        StressTestRunner runner = args.length > 1 ? new StressTestRunner(Integer.parseInt(args[1]), Boolean.getBoolean(EPILOGUE_PROPERTY)) : new StressTestRunner();
+        StressTestReport report = runner.run(testCaseClass);
+        System.out.println(report);
+        System.exit(report.isSuccessful() ? 0 : 1);
+    }
+}
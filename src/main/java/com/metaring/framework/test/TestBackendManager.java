@@ -0,0 +1,57 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+final class TestBackendManager {
+
+    static final String BACKEND_PROPERTY = "metaring.test.backend";
+
+    private static final FunctionalityTestBackend BACKEND = initBackend();
+
+    private TestBackendManager() {
+    }
+
+    static FunctionalityTestBackend getBackend() {
+        return BACKEND;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FunctionalityTestBackend initBackend() {
+        String backendClassName = System.getProperty(BACKEND_PROPERTY);
+        Class<? extends FunctionalityTestBackend> backendClass = null;
+        try {
+            backendClass = (Class<? extends FunctionalityTestBackend>) Class.forName(backendClassName != null ? backendClassName : FunctionalityTestBackend.class.getName() + "Impl");
+        }
+        catch (Exception e) {
+            if (backendClassName != null) {
+                e.printStackTrace();
+                throw new RuntimeException("Exception while loading Test Backend " + backendClassName, e);
+            }
+        }
+        if (backendClass == null) {
+            return new FrameworkFunctionalityTestBackend();
+        }
+        try {
+            return backendClass.newInstance();
+        }
+        catch (Exception e) {
+            e.printStackTrace();
+            throw new RuntimeException("Exception while initializing Test Backend " + backendClass.getName(), e);
+        }
+    }
+}
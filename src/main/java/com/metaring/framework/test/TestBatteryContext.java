@@ -0,0 +1,65 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class TestBatteryContext {
+
+    private final long startNanos = System.nanoTime();
+    private final long startMillis = System.currentTimeMillis();
+    private final AtomicLong cases = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    TestBatteryContext() {
+    }
+
+    void record(TestOutcome outcome) {
+        cases.incrementAndGet();
+        if (!outcome.isSuccessful()) {
+            failures.incrementAndGet();
+        }
+        totalNanos.addAndGet(outcome.getDurationNanos());
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public long getCases() {
+        return cases.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getTotalCaseNanos() {
+        return totalNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d cases, %d failed, %d ms of case time in %d ms", getCases(), getFailures(), getTotalCaseNanos() / 1_000_000L, getElapsedNanos() / 1_000_000L);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+final class TestBatteryScheduler {
+
+    static final String SHARD_INDEX_PROPERTY = "metaring.test.shard.index";
+    static final String SHARD_COUNT_PROPERTY = "metaring.test.shard.count";
+
+    private static final int SHARD_INDEX = Integer.getInteger(SHARD_INDEX_PROPERTY, 0);
+    private static final int SHARD_COUNT = Integer.getInteger(SHARD_COUNT_PROPERTY, 1);
+
+    private TestBatteryScheduler() {
+    }
+
+    static int getShardIndex() {
+        return SHARD_INDEX;
+    }
+
+    static int getShardCount() {
+        return SHARD_COUNT;
+    }
+
+    static List<Class<? extends AbstractFunctionalityTestCase>> schedule(Collection<Class<? extends AbstractFunctionalityTestCase>> testCaseClasses, TestRunIndex index) {
+        return schedule(testCaseClasses, index, SHARD_INDEX, SHARD_COUNT);
+    }
+
+    static List<Class<? extends AbstractFunctionalityTestCase>> schedule(Collection<Class<? extends AbstractFunctionalityTestCase>> testCaseClasses, TestRunIndex index, int shardIndex, int shardCount) {
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException(String.format("Invalid shard %d of %d", shardIndex, shardCount));
+        }
+        Map<String, Long> durations = index.getDurationsByClassName();
+        long estimate = 0;
+        for (Long duration : durations.values()) {
+            estimate += duration;
+        }
+        final long unknownDuration = durations.isEmpty() ? 1 : Math.max(1, estimate / durations.size());
+
+        List<Class<? extends AbstractFunctionalityTestCase>> ordered = new ArrayList<>(testCaseClasses);
+        Comparator<Class<? extends AbstractFunctionalityTestCase>> longestFirst = Comparator.comparingLong(testCaseClass -> -durations.getOrDefault(testCaseClass.getName(), unknownDuration));
+        ordered.sort(longestFirst.thenComparing(Class::getName));
+        if (shardCount == 1) {
+            return ordered;
+        }
+
+        long[] loads = new long[shardCount];
+        List<Class<? extends AbstractFunctionalityTestCase>> shard = new ArrayList<>();
+        for (Class<? extends AbstractFunctionalityTestCase> testCaseClass : ordered) {
+            int lightest = 0;
+            for (int i = 1; i < shardCount; i++) {
+                if (loads[i] < loads[lightest]) {
+                    lightest = i;
+                }
+            }
+            loads[lightest] += durations.getOrDefault(testCaseClass.getName(), unknownDuration);
+            if (lightest == shardIndex) {
+                shard.add(testCaseClass);
+            }
+        }
+        return shard;
+    }
+}
@@ -16,13 +16,17 @@
 
 package com.metaring.framework.test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
 class TestBatterySupervisorManager {
 
     private static boolean STARTED = false;
 
     @SuppressWarnings("unchecked")
-    static CoreTestsBatterySupervisor initSupervisor() {
-        CoreTestsBatterySupervisor coreTestSupervisor = null;
+    static CompositeTestsBatterySupervisor initSupervisor() {
+        CompositeTestsBatterySupervisor coreTestSupervisor = null;
         if (STARTED) {
             RuntimeException e = new RuntimeException("Supervisor already initialized!");
             e.printStackTrace();
@@ -31,6 +35,7 @@ class TestBatterySupervisorManager {
         STARTED = true;
 
         try {
+            List<CoreTestsBatterySupervisor> supervisors = new ArrayList<>();
             Class<? extends CoreTestsBatterySupervisor> coreTestSupervisorClass = null;
             try {
                 coreTestSupervisorClass = (Class<? extends CoreTestsBatterySupervisor>) Class.forName(CoreTestsBatterySupervisor.class.getName() + "Impl");
@@ -38,7 +43,15 @@ class TestBatterySupervisorManager {
             catch (Exception ex) {
             }
             if (coreTestSupervisorClass != null) {
-                coreTestSupervisor = coreTestSupervisorClass.newInstance();
+                supervisors.add(coreTestSupervisorClass.newInstance());
+            }
+            for (CoreTestsBatterySupervisor supervisor : ServiceLoader.load(CoreTestsBatterySupervisor.class)) {
+                if (coreTestSupervisorClass == null || !coreTestSupervisorClass.equals(supervisor.getClass())) {
+                    supervisors.add(supervisor);
+                }
+            }
+            if (!supervisors.isEmpty()) {
+                coreTestSupervisor = new CompositeTestsBatterySupervisor(supervisors);
                 coreTestSupervisor.init();
                 final CoreTestsBatterySupervisor coreTestSupervisorFinal = coreTestSupervisor;
                 Runtime.getRuntime().addShutdownHook(new Thread() {
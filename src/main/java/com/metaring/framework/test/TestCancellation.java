@@ -0,0 +1,49 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.concurrent.CompletableFuture;
+
+final class TestCancellation {
+
+    private volatile boolean cancelled;
+    private volatile CompletableFuture<?> phase;
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    void cancelPhase() {
+        CompletableFuture<?> phase = this.phase;
+        if (phase != null) {
+            phase.cancel(true);
+        }
+    }
+
+    <T> CompletableFuture<T> track(CompletableFuture<T> phase) {
+        this.phase = phase;
+        if (cancelled) {
+            phase.cancel(true);
+        }
+        return phase;
+    }
+}
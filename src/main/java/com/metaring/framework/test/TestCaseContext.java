@@ -0,0 +1,54 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+public final class TestCaseContext {
+
+    private final Class<? extends AbstractFunctionalityTestCase> testCaseClass;
+    private final String name;
+    private final Long id;
+    private final PhaseTimings timings;
+
+    TestCaseContext(Class<? extends AbstractFunctionalityTestCase> testCaseClass, String name, Long id, PhaseTimings timings) {
+        this.testCaseClass = testCaseClass;
+        this.name = name;
+        this.id = id;
+        this.timings = timings;
+    }
+
+    public Class<? extends AbstractFunctionalityTestCase> getTestCaseClass() {
+        return testCaseClass;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public PhaseTimings getTimings() {
+        return timings;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s #%d)", testCaseClass.getName(), name, id);
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+final class TestCaseDiscovery {
+
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    private TestCaseDiscovery() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Class<? extends AbstractFunctionalityTestCase>> discover(String packagePrefix) {
+        String prefix = packagePrefix == null ? "" : packagePrefix.trim();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = TestCaseDiscovery.class.getClassLoader();
+        }
+        TreeSet<String> classNames = new TreeSet<>();
+        String packageName = prefix;
+        while (!collect(classLoader, packageName, prefix, classNames) && !packageName.isEmpty()) {
+            packageName = packageName.lastIndexOf('.') == -1 ? "" : packageName.substring(0, packageName.lastIndexOf('.'));
+        }
+
+        List<Class<? extends AbstractFunctionalityTestCase>> testCaseClasses = new ArrayList<>();
+        for (String className : classNames) {
+            Class<?> clazz = null;
+            try {
+                clazz = Class.forName(className, false, classLoader);
+            }
+            catch (Throwable e) {
+                continue;
+            }
+            if (isRunnableTestCase(clazz)) {
+                testCaseClasses.add((Class<? extends AbstractFunctionalityTestCase>) clazz);
+            }
+        }
+        return testCaseClasses;
+    }
+
+    private static boolean collect(ClassLoader classLoader, String packageName, String prefix, TreeSet<String> classNames) {
+        String path = packageName.replace('.', '/');
+        Enumeration<URL> resources;
+        try {
+            resources = classLoader.getResources(path);
+        }
+        catch (IOException e) {
+            return false;
+        }
+        boolean found = false;
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            found = true;
+            if ("file".equals(resource.getProtocol())) {
+                try {
+                    collectFromDirectory(new File(resource.toURI()), packageName, prefix, classNames);
+                }
+                catch (URISyntaxException | IllegalArgumentException e) {
+                }
+            }
+            else
+                if ("jar".equals(resource.getProtocol())) {
+                    collectFromJar(resource, path, prefix, classNames);
+                }
+        }
+        return found;
+    }
+
+    static boolean isRunnableTestCase(Class<?> clazz) {
+        if (clazz == AbstractFunctionalityTestCase.class || !AbstractFunctionalityTestCase.class.isAssignableFrom(clazz)) {
+            return false;
+        }
+        if (Modifier.isAbstract(clazz.getModifiers()) || !Modifier.isPublic(clazz.getModifiers())) {
+            return false;
+        }
+        try {
+            clazz.getConstructor();
+            return true;
+        }
+        catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static void collectFromDirectory(File directory, String packageName, String prefix, TreeSet<String> classNames) {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            String childName = child.getName();
+            if (child.isDirectory()) {
+                collectFromDirectory(child, packageName.isEmpty() ? childName : packageName + "." + childName, prefix, classNames);
+                continue;
+            }
+            if (childName.endsWith(CLASS_FILE_SUFFIX) && childName.indexOf('$') == -1) {
+                String className = childName.substring(0, childName.length() - CLASS_FILE_SUFFIX.length());
+                addIfMatching(packageName.isEmpty() ? className : packageName + "." + className, prefix, classNames);
+            }
+        }
+    }
+
+    private static void collectFromJar(URL resource, String path, String prefix, TreeSet<String> classNames) {
+        String entryPrefix = path.isEmpty() ? "" : path + "/";
+        try {
+            JarURLConnection connection = (JarURLConnection) resource.openConnection();
+            connection.setUseCaches(false);
+            try (JarFile jarFile = connection.getJarFile()) {
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    String entryName = entries.nextElement().getName();
+                    if (entryName.startsWith(entryPrefix) && entryName.endsWith(CLASS_FILE_SUFFIX) && entryName.indexOf('$') == -1) {
+                        addIfMatching(entryName.substring(0, entryName.length() - CLASS_FILE_SUFFIX.length()).replace('/', '.'), prefix, classNames);
+                    }
+                }
+            }
+        }
+        catch (IOException | ClassCastException e) {
+        }
+    }
+
+    private static void addIfMatching(String className, String prefix, TreeSet<String> classNames) {
+        if (className.startsWith(prefix) && !className.equals("module-info") && !className.endsWith("package-info")) {
+            classNames.add(className);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.metaring.framework.util.StringUtil;
+
+final class TestFixtureManager {
+
+    private static final Map<Class<? extends FunctionalityTestFixture>, CompletableFuture<Void>> FIXTURES = new ConcurrentHashMap<>();
+
+    private TestFixtureManager() {
+    }
+
+    static void prepare(FunctionalityTestFixture fixture, CoreTestsBatterySupervisor supervisor) {
+        FIXTURES.computeIfAbsent(fixture.getClass(), key -> apply(fixture, supervisor)).join();
+    }
+
+    static void beginTransaction() {
+        TestBackendManager.getBackend().update(PersistenceScript.BEGIN_TRANSACTION).join();
+    }
+
+    static void rollbackTransaction() {
+        TestBackendManager.getBackend().update(PersistenceScript.ROLLBACK_TRANSACTION).join();
+    }
+
+    private static CompletableFuture<Void> apply(FunctionalityTestFixture fixture, CoreTestsBatterySupervisor supervisor) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            if (supervisor != null) {
+                supervisor.preFixture(fixture);
+            }
+            execute(PersistenceScript.statements(fixture.getPersistencePreambleActions()), 0).whenComplete((nothing, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                    return;
+                }
+                try {
+                    if (supervisor != null) {
+                        supervisor.postFixture(fixture);
+                    }
+                    result.complete(null);
+                }
+                catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        }
+        catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private static CompletableFuture<Void> execute(List<String> preambleActions, int i) {
+        if (preambleActions == null || i >= preambleActions.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String preambleAction = preambleActions.get(i);
+        return PersistenceStatement.update(TestBackendManager.getBackend(), preambleAction).handle((result, error) -> error).thenCompose(error -> {
+            if (error == null) {
+                return execute(preambleActions, i + 1);
+            }
+            String errorMessageFormat = "Persistence Fixture action\n\n%s\n\nreturned the following error:\n\n%s";
+            throw new CompletionException(new IllegalStateException(String.format(errorMessageFormat, preambleAction, StringUtil.fromThrowableToString(error))));
+        });
+    }
+}
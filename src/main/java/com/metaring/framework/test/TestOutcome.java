@@ -0,0 +1,118 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class TestOutcome {
+
+    private final Class<? extends AbstractFunctionalityTestCase> testCaseClass;
+    private final String caseGroup;
+    private final String name;
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final List<String> errorMessages;
+    private final PhaseTimings timings;
+
+    TestOutcome(Class<? extends AbstractFunctionalityTestCase> testCaseClass, String name, Long id, String title, String description, List<String> errorMessages, PhaseTimings timings) {
+        this(testCaseClass, testCaseClass.getName(), name, id, title, description, errorMessages, timings);
+    }
+
+    TestOutcome(Class<? extends AbstractFunctionalityTestCase> testCaseClass, String caseGroup, String name, Long id, String title, String description, List<String> errorMessages, PhaseTimings timings) {
+        this.testCaseClass = testCaseClass;
+        this.caseGroup = caseGroup;
+        this.name = name;
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.errorMessages = errorMessages == null || errorMessages.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(errorMessages));
+        this.timings = timings == null ? new PhaseTimings() : timings.snapshot();
+    }
+
+    public Class<? extends AbstractFunctionalityTestCase> getTestCaseClass() {
+        return testCaseClass;
+    }
+
+    public String getCaseGroup() {
+        return caseGroup;
+    }
+
+    public String getCaseIdentity() {
+        return identity(caseGroup, id);
+    }
+
+    static String identity(String caseGroup, Long id) {
+        return caseGroup + "#" + id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<String> getErrorMessages() {
+        return errorMessages;
+    }
+
+    public PhaseTimings getTimings() {
+        return timings;
+    }
+
+    public long getDurationNanos() {
+        return timings.getTotalNanos();
+    }
+
+    public boolean isSuccessful() {
+        return errorMessages.isEmpty();
+    }
+
+    public void printErrors(PrintStream printStream) {
+        if (isSuccessful()) {
+            return;
+        }
+        StringBuilder report = new StringBuilder();
+        report.append("\n------ ASSERTION FAILED ------\n");
+        report.append("\nFunctionality: ").append(name).append("\n");
+        report.append("\nTitle: ").append(title).append("\n");
+        report.append("\nDescription: ").append(description).append("\n");
+        report.append("\nClass: ").append(testCaseClass.getName()).append("\n");
+        report.append("\nCase: ").append(getCaseIdentity()).append("\n");
+        report.append("\nErrors:\n");
+        for (String errorMessage : errorMessages) {
+            report.append("\n\t- ").append(errorMessage).append(";\n");
+        }
+        report.append("\n-------------------------------------\n");
+        report.append("\n\n");
+        printStream.print(report.toString());
+    }
+}
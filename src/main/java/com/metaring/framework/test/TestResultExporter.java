@@ -0,0 +1,242 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+final class TestResultExporter {
+
+    static final String EXPORT_PROPERTY = "metaring.test.report.export";
+    static final String BASELINE_PROPERTY = "metaring.test.report.baseline";
+    static final String REGRESSION_THRESHOLD_PROPERTY = "metaring.test.report.regression.threshold";
+    static final String REGRESSION_MIN_MILLIS_PROPERTY = "metaring.test.report.regression.min.millis";
+
+    private static final int SLOWEST_CASES = 3;
+
+    private final File directory;
+    private final long startMillis = System.currentTimeMillis();
+    private final Queue<TestOutcome> outcomes = new ConcurrentLinkedQueue<>();
+
+    private TestResultExporter(File directory) {
+        this.directory = directory;
+    }
+
+    static TestResultExporter create() {
+        if (!Boolean.getBoolean(EXPORT_PROPERTY)) {
+            return null;
+        }
+        final TestResultExporter exporter = new TestResultExporter(PhaseTimingsReporter.reportDirectory());
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                exporter.export();
+            }
+        });
+        return exporter;
+    }
+
+    void record(TestOutcome outcome) {
+        outcomes.add(outcome);
+    }
+
+    void export() {
+        Map<String, List<TestOutcome>> byFunctionality = new TreeMap<>();
+        for (TestOutcome outcome : outcomes) {
+            byFunctionality.computeIfAbsent(String.valueOf(outcome.getName()), name -> new ArrayList<>()).add(outcome);
+        }
+        if (byFunctionality.isEmpty()) {
+            return;
+        }
+        directory.mkdirs();
+        try {
+            writeJUnitXml(new File(directory, "TEST-metaring-functionalities.xml"), byFunctionality);
+            writePerformanceSummary(new File(directory, "performance-summary.tsv"), byFunctionality);
+            String baseline = System.getProperty(BASELINE_PROPERTY);
+            if (baseline != null) {
+                writeRegressions(new File(directory, "performance-regressions.tsv"), TestRunIndex.load(new File(baseline)));
+            }
+        }
+        catch (IOException e) {
+            System.err.println("Exception while exporting Test Results to " + directory + ":\n\n");
+            e.printStackTrace();
+        }
+    }
+
+    private void writeJUnitXml(File file, Map<String, List<TestOutcome>> byFunctionality) throws IOException {
+        SimpleDateFormat timestamp = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+        timestamp.setTimeZone(TimeZone.getTimeZone("UTC"));
+        try (BufferedWriter writer = writer(file)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+            writer.newLine();
+            writer.write("<testsuites>");
+            writer.newLine();
+            for (Map.Entry<String, List<TestOutcome>> functionality : byFunctionality.entrySet()) {
+                List<TestOutcome> functionalityOutcomes = functionality.getValue();
+                long failures = 0;
+                long totalNanos = 0;
+                for (TestOutcome outcome : functionalityOutcomes) {
+                    failures += outcome.isSuccessful() ? 0 : 1;
+                    totalNanos += outcome.getDurationNanos();
+                }
+                writer.write(String.format(Locale.ROOT, "  <testsuite name=\"%s\" tests=\"%d\" failures=\"%d\" errors=\"0\" skipped=\"0\" time=\"%s\" timestamp=\"%s\">", xml(functionality.getKey()), functionalityOutcomes.size(), failures, seconds(totalNanos), timestamp.format(new Date(startMillis))));
+                writer.newLine();
+                for (TestOutcome outcome : functionalityOutcomes) {
+                    String caseName = outcome.getTitle() != null ? outcome.getTitle() : "#" + outcome.getId();
+                    writer.write(String.format(Locale.ROOT, "    <testcase classname=\"%s\" name=\"%s\" time=\"%s\"", xml(outcome.getCaseGroup()), xml(caseName), seconds(outcome.getDurationNanos())));
+                    if (outcome.isSuccessful()) {
+                        writer.write("/>");
+                        writer.newLine();
+                        continue;
+                    }
+                    writer.write(">");
+                    writer.newLine();
+                    StringBuilder details = new StringBuilder();
+                    for (String errorMessage : outcome.getErrorMessages()) {
+                        details.append("- ").append(errorMessage).append("\n\n");
+                    }
+                    writer.write(String.format(Locale.ROOT, "      <failure message=\"%s\" type=\"%s\">%s</failure>", xml(JsonSnippet.of(outcome.getErrorMessages().get(0))), AssertionError.class.getName(), xml(details.toString().trim())));
+                    writer.newLine();
+                    writer.write("    </testcase>");
+                    writer.newLine();
+                }
+                writer.write("  </testsuite>");
+                writer.newLine();
+            }
+            writer.write("</testsuites>");
+            writer.newLine();
+        }
+    }
+
+    private void writePerformanceSummary(File file, Map<String, List<TestOutcome>> byFunctionality) throws IOException {
+        try (BufferedWriter writer = writer(file)) {
+            writer.write("functionality\tcount\tpassed\tpass_rate\tmean_ms\tp95_ms\tslowest");
+            writer.newLine();
+            for (Map.Entry<String, List<TestOutcome>> functionality : byFunctionality.entrySet()) {
+                List<TestOutcome> functionalityOutcomes = new ArrayList<>(functionality.getValue());
+                functionalityOutcomes.sort((first, second) -> Long.compare(second.getDurationNanos(), first.getDurationNanos()));
+                int count = functionalityOutcomes.size();
+                long passed = 0;
+                long totalNanos = 0;
+                for (TestOutcome outcome : functionalityOutcomes) {
+                    passed += outcome.isSuccessful() ? 1 : 0;
+                    totalNanos += outcome.getDurationNanos();
+                }
+                int p95Rank = (int) Math.ceil(count * 0.95) - 1;
+                long p95Nanos = functionalityOutcomes.get(count - 1 - p95Rank).getDurationNanos();
+                StringBuilder slowest = new StringBuilder();
+                for (TestOutcome outcome : functionalityOutcomes.subList(0, Math.min(SLOWEST_CASES, count))) {
+                    if (slowest.length() > 0) {
+                        slowest.append(", ");
+                    }
+                    slowest.append(outcome.getTestCaseClass().getSimpleName()).append('#').append(outcome.getId()).append(' ').append(millis(outcome.getDurationNanos())).append(" ms");
+                }
+                writer.write(String.format(Locale.ROOT, "%s\t%d\t%d\t%.3f\t%s\t%s\t%s", functionality.getKey(), count, passed, passed / (double) count, millis(totalNanos / count), millis(p95Nanos), slowest));
+                writer.newLine();
+            }
+        }
+    }
+
+    private void writeRegressions(File file, TestRunIndex baseline) throws IOException {
+        double threshold = Double.parseDouble(System.getProperty(REGRESSION_THRESHOLD_PROPERTY, "20"));
+        long minNanos = Long.getLong(REGRESSION_MIN_MILLIS_PROPERTY, 10L) * 1_000_000L;
+        List<String> regressions = new ArrayList<>();
+        for (TestOutcome outcome : outcomes) {
+            TestRunIndex.Entry entry = baseline.get(outcome.getCaseIdentity());
+            if (entry == null || entry.getDurationNanos() <= 0) {
+                continue;
+            }
+            long deltaNanos = outcome.getDurationNanos() - entry.getDurationNanos();
+            double deltaPercent = deltaNanos * 100.0 / entry.getDurationNanos();
+            if (deltaNanos >= minNanos && deltaPercent > threshold) {
+                regressions.add(String.format(Locale.ROOT, "%s\t%s\t%s\t%s\t%s\t%.1f", outcome.getCaseGroup(), outcome.getName(), outcome.getId(), millis(entry.getDurationNanos()), millis(outcome.getDurationNanos()), deltaPercent));
+            }
+        }
+        Collections.sort(regressions);
+        try (BufferedWriter writer = writer(file)) {
+            writer.write("case\tfunctionality\tid\tbaseline_ms\tcurrent_ms\tdelta_percent");
+            writer.newLine();
+            for (String regression : regressions) {
+                writer.write(regression);
+                writer.newLine();
+            }
+        }
+        if (!regressions.isEmpty()) {
+            System.err.println(String.format(Locale.ROOT, "%d Test Cases regressed more than %.1f%% against baseline, see %s", regressions.size(), threshold, file));
+        }
+    }
+
+    private static BufferedWriter writer(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000_000.0);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    static String xml(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<':
+                    escaped.append("&lt;");
+                    break;
+                case '>':
+                    escaped.append("&gt;");
+                    break;
+                case '&':
+                    escaped.append("&amp;");
+                    break;
+                case '"':
+                    escaped.append("&quot;");
+                    break;
+                default:
+                    if (c < 0x20 && c != '\n' && c != '\r' && c != '\t') {
+                        escaped.append(' ');
+                    }
+                    else {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.toString();
+    }
+}
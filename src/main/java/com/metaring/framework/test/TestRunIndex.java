@@ -0,0 +1,289 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class TestRunIndex {
+
+    public static final String RECORD_PROPERTY = "metaring.test.run.index";
+    public static final String FILE_PROPERTY = "metaring.test.run.index.file";
+    public static final String SELECTION_PROPERTY = "metaring.test.selection";
+    public static final String CHANGED_PACKAGES_PROPERTY = "metaring.test.changed.packages";
+
+    private static final String SEPARATOR = "\t";
+    private static final String HEADER = "key\tclass\tfunctionality\tid\tsuccessful\tduration_ns\tinput_hash\texpected_hash";
+
+    private static volatile TestRunIndex RECORDER;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private TestRunIndex() {
+    }
+
+    public static File defaultFile() {
+        String file = System.getProperty(FILE_PROPERTY);
+        return file != null ? new File(file) : new File(PhaseTimingsReporter.reportDirectory(), "run-index.tsv");
+    }
+
+    public static TestSelection defaultSelection() {
+        return TestSelection.valueOf(System.getProperty(SELECTION_PROPERTY, TestSelection.ALL.name()).trim().toUpperCase());
+    }
+
+    public static Set<String> defaultChangedPackages() {
+        Set<String> changedPackages = new HashSet<>();
+        for (String changedPackage : System.getProperty(CHANGED_PACKAGES_PROPERTY, "").split(",")) {
+            if (!changedPackage.trim().isEmpty()) {
+                changedPackages.add(changedPackage.trim());
+            }
+        }
+        return changedPackages;
+    }
+
+    public static TestRunIndex load() {
+        return load(defaultFile());
+    }
+
+    public static TestRunIndex load(File file) {
+        TestRunIndex index = new TestRunIndex();
+        if (!file.isFile()) {
+            return index;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.equals(HEADER)) {
+                    continue;
+                }
+                String[] fields = line.split(SEPARATOR, -1);
+                if (fields.length != 8) {
+                    continue;
+                }
+                index.entries.put(fields[0], new Entry(fields[1], fields[2], fields[3].isEmpty() ? null : Long.valueOf(fields[3]), Boolean.parseBoolean(fields[4]), Long.parseLong(fields[5]), fields[6], fields[7]));
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            System.err.println("Exception while loading Test Run Index " + file + ", ignoring it:\n\n");
+            e.printStackTrace();
+        }
+        return index;
+    }
+
+    public synchronized void save(File file) throws IOException {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Map.Entry<String, Entry> entry : new TreeMap<>(entries).entrySet()) {
+                Entry value = entry.getValue();
+                writer.write(entry.getKey() + SEPARATOR + value.className + SEPARATOR + value.name + SEPARATOR + (value.id == null ? "" : value.id) + SEPARATOR + value.successful + SEPARATOR + value.durationNanos + SEPARATOR + value.inputHash + SEPARATOR + value.expectedHash);
+                writer.newLine();
+            }
+        }
+    }
+
+    public Entry get(Class<? extends AbstractFunctionalityTestCase> testCaseClass, Long id) {
+        return get(TestOutcome.identity(testCaseClass.getName(), id));
+    }
+
+    public Entry get(String caseIdentity) {
+        return entries.get(caseIdentity);
+    }
+
+    public Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    public Map<String, Long> getDurationsByClassName() {
+        Map<String, Long> durations = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            durations.merge(entry.className, entry.durationNanos, Long::sum);
+        }
+        return durations;
+    }
+
+    static void recordIfEnabled(TestOutcome outcome, String inputParam, String expectedOutput) {
+        if (!Boolean.getBoolean(RECORD_PROPERTY)) {
+            return;
+        }
+        recorder().record(outcome, inputParam, expectedOutput);
+    }
+
+    private static TestRunIndex recorder() {
+        if (RECORDER == null) {
+            synchronized (TestRunIndex.class) {
+                if (RECORDER == null) {
+                    final File file = defaultFile();
+                    final TestRunIndex recorder = load(file);
+                    Runtime.getRuntime().addShutdownHook(new Thread() {
+                        @Override
+                        public void run() {
+                            try {
+                                recorder.save(file);
+                            }
+                            catch (IOException e) {
+                                System.err.println("Exception while saving Test Run Index " + file + ":\n\n");
+                                e.printStackTrace();
+                            }
+                        }
+                    });
+                    RECORDER = recorder;
+                }
+            }
+        }
+        return RECORDER;
+    }
+
+    void record(TestOutcome outcome, String inputParam, String expectedOutput) {
+        String className = outcome.getTestCaseClass().getName();
+        entries.put(outcome.getCaseIdentity(), new Entry(className, outcome.getName(), outcome.getId(), outcome.isSuccessful(), outcome.getDurationNanos(), hash(inputParam), hash(expectedOutput)));
+    }
+
+    public List<Class<? extends AbstractFunctionalityTestCase>> select(List<Class<? extends AbstractFunctionalityTestCase>> testCaseClasses, TestSelection selection, Set<String> changedPackages) {
+        if (selection == TestSelection.ALL) {
+            return testCaseClasses;
+        }
+        List<Class<? extends AbstractFunctionalityTestCase>> selected = new ArrayList<>();
+        Map<Class<? extends AbstractFunctionalityTestCase>, Long> durations = new ConcurrentHashMap<>();
+        for (Class<? extends AbstractFunctionalityTestCase> testCaseClass : testCaseClasses) {
+            AbstractFunctionalityTestCase testCase;
+            try {
+                testCase = testCaseClass.getConstructor().newInstance();
+            }
+            catch (Exception e) {
+                selected.add(testCaseClass);
+                continue;
+            }
+            Entry entry = entries.get(testCase.getCaseIdentity());
+            switch (selection) {
+                case FAILED:
+                    if (entry != null && !entry.successful) {
+                        selected.add(testCaseClass);
+                    }
+                    break;
+                case CHANGED:
+                    if (entry == null || isChanged(entry, testCase, changedPackages)) {
+                        selected.add(testCaseClass);
+                    }
+                    break;
+                case SLOWEST_FIRST:
+                    selected.add(testCaseClass);
+                    durations.put(testCaseClass, entry == null ? Long.MAX_VALUE : entry.durationNanos);
+                    break;
+                default:
+                    selected.add(testCaseClass);
+            }
+        }
+        if (selection == TestSelection.SLOWEST_FIRST) {
+            selected.sort((first, second) -> Long.compare(durations.getOrDefault(second, Long.MAX_VALUE), durations.getOrDefault(first, Long.MAX_VALUE)));
+        }
+        return selected;
+    }
+
+    private static boolean isChanged(Entry entry, AbstractFunctionalityTestCase testCase, Set<String> changedPackages) {
+        if (!entry.inputHash.equals(hash(testCase.getInputParam())) || !entry.expectedHash.equals(hash(testCase.getExpectedOutput()))) {
+            return true;
+        }
+        for (String changedPackage : changedPackages) {
+            if (testCase.getName().equals(changedPackage) || testCase.getName().startsWith(changedPackage + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String hash(String text) {
+        if (text == null) {
+            return "";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hash = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                hash.append(String.format("%02x", digest[i]));
+            }
+            return hash.toString();
+        }
+        catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(text.hashCode());
+        }
+    }
+
+    public static final class Entry {
+
+        private final String className;
+        private final String name;
+        private final Long id;
+        private final boolean successful;
+        private final long durationNanos;
+        private final String inputHash;
+        private final String expectedHash;
+
+        private Entry(String className, String name, Long id, boolean successful, long durationNanos, String inputHash, String expectedHash) {
+            this.className = className;
+            this.name = name == null ? "" : name;
+            this.id = id;
+            this.successful = successful;
+            this.durationNanos = durationNanos;
+            this.inputHash = inputHash;
+            this.expectedHash = expectedHash;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public boolean isSuccessful() {
+            return successful;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+    }
+}
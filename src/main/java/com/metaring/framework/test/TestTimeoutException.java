@@ -0,0 +1,40 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+public class TestTimeoutException extends RuntimeException {
+
+    private static final long serialVersionUID = -4125283915227044520L;
+
+    private final TestPhase phase;
+    private final long timeoutMillis;
+
+    TestTimeoutException(String message, TestPhase phase, long timeoutMillis) {
+        super(message);
+        this.phase = phase;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public TestPhase getPhase() {
+        return phase;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+}
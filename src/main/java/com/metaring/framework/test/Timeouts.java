@@ -0,0 +1,94 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+final class Timeouts {
+
+    static final String CASE_TIMEOUT_PROPERTY = "metaring.test.timeout.case";
+    static final String PHASE_TIMEOUT_PROPERTY = "metaring.test.timeout.phase";
+
+    static final long CASE_TIMEOUT_MILLIS = Long.getLong(CASE_TIMEOUT_PROPERTY, TimeUnit.MINUTES.toMillis(5));
+    static final long PHASE_TIMEOUT_MILLIS = Long.getLong(PHASE_TIMEOUT_PROPERTY, TimeUnit.MINUTES.toMillis(2));
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER;
+    private static final ExecutorService COMPLETIONS;
+
+    static {
+        SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "metaring-test-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        SCHEDULER.setRemoveOnCancelPolicy(true);
+        COMPLETIONS = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "metaring-test-timeouts-completion");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private Timeouts() {
+    }
+
+    static <T> CompletableFuture<T> within(CompletableFuture<T> source, long timeoutMillis, Supplier<TestTimeoutException> timeout) {
+        if (timeoutMillis <= 0 || source.isDone()) {
+            return source;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        ScheduledFuture<?> scheduled = SCHEDULER.schedule(() -> CompletableFuture.runAsync(() -> {
+            if (result.completeExceptionally(timeout.get())) {
+                source.cancel(true);
+            }
+        }, COMPLETIONS), timeoutMillis, TimeUnit.MILLISECONDS);
+        source.whenComplete((value, error) -> {
+            scheduled.cancel(false);
+            if (error != null) {
+                result.completeExceptionally(error);
+            }
+            else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    static TestTimeoutException phaseTimeout(TestPhase phase, long timeoutMillis) {
+        return new TestTimeoutException(String.format("Phase %s timed out after %d ms", phase, timeoutMillis), phase, timeoutMillis);
+    }
+
+    static TestTimeoutException caseTimeout(TestPhase phase, long timeoutMillis) {
+        return new TestTimeoutException(String.format("Test Case timed out after %d ms while in phase %s", timeoutMillis, phase), phase, timeoutMillis);
+    }
+
+    static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
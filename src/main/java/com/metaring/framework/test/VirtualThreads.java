@@ -0,0 +1,87 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class VirtualThreads {
+
+    /**
+     * Runs each battery case, load request and stress invocation on its own virtual thread. Only the dispatch and the
+     * before / after hooks block there: the preamble, call and epilogue chains stay asynchronous CompletableFuture
+     * pipelines and do not run as blocking code on the virtual thread.
+     */
+    static final String VIRTUAL_THREADS_PROPERTY = "metaring.test.virtual.threads";
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR;
+
+    private static final boolean ENABLED;
+
+    static {
+        Method method = null;
+        try {
+            method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        }
+        catch (Exception e) {
+        }
+        NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = method;
+        boolean requested = Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY);
+        if (requested && method == null) {
+            System.err.println("Virtual Threads requested through " + VIRTUAL_THREADS_PROPERTY + " but not supported by Java " + System.getProperty("java.version") + ", falling back to asynchronous execution");
+        }
+        ENABLED = requested && method != null;
+    }
+
+    private VirtualThreads() {
+    }
+
+    static boolean isAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    static ExecutorService newWorkers(String name, int threads) {
+        if (ENABLED) {
+            return newExecutor();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    static ExecutorService newExecutor() {
+        if (!isAvailable()) {
+            throw new UnsupportedOperationException("Virtual Threads are not supported by Java " + System.getProperty("java.version"));
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        }
+        catch (Exception e) {
+            throw new RuntimeException("Error while creating Virtual Thread Executor", e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ArraySamplingTest {
+
+    @Test
+    public void disabledByDefault() {
+        ArraySampling sampling = ArraySampling.parse(null, 0, 0);
+        assertFalse(sampling.isApplicable(1_000_000));
+    }
+
+    @Test
+    public void appliesOnlyAboveThreshold() {
+        ArraySampling sampling = ArraySampling.parse("every:10", 100, 0);
+        assertFalse(sampling.isApplicable(100));
+        assertTrue(sampling.isApplicable(101));
+    }
+
+    @Test
+    public void everyIncludesFirstAndLastIndex() {
+        assertEquals(Arrays.asList(0, 4, 8, 9), indexes(ArraySampling.parse("every:4", 0, 0), 10));
+        assertEquals(Arrays.asList(0, 3, 6, 9), indexes(ArraySampling.parse("every:3", 0, 0), 10));
+        assertEquals(Arrays.asList(0), indexes(ArraySampling.parse("every:5", 0, 0), 1));
+    }
+
+    @Test
+    public void randomSelectsDistinctOrderedIndexes() {
+        List<Integer> indexes = indexes(ArraySampling.parse("random:50", 0, 42), 1_000);
+        assertEquals(50, indexes.size());
+        for (int i = 1; i < indexes.size(); i++) {
+            assertTrue(indexes.get(i - 1) < indexes.get(i));
+        }
+        assertTrue(indexes.get(0) >= 0 && indexes.get(indexes.size() - 1) < 1_000);
+    }
+
+    @Test
+    public void randomIsReproducibleForTheSameSeed() {
+        assertEquals(indexes(ArraySampling.parse("random:20", 0, 7), 500), indexes(ArraySampling.parse("random:20", 0, 7), 500));
+    }
+
+    @Test
+    public void randomNeverSelectsMoreThanLength() {
+        assertEquals(Arrays.asList(0, 1, 2), indexes(ArraySampling.parse("random:10", 0, 0), 3));
+    }
+
+    @Test
+    public void visitorStopsIteration() {
+        List<Integer> visited = new ArrayList<>();
+        ArraySampling.parse("every:2", 0, 0).forEachIndex(100, i -> {
+            visited.add(i);
+            return visited.size() < 3;
+        });
+        assertEquals(Arrays.asList(0, 2, 4), visited);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownMode() {
+        ArraySampling.parse("first:10", 0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveStep() {
+        ArraySampling.parse("every:0", 0, 0);
+    }
+
+    private static List<Integer> indexes(ArraySampling sampling, int length) {
+        List<Integer> indexes = new ArrayList<>();
+        sampling.forEachIndex(length, i -> indexes.add(i));
+        return indexes;
+    }
+}
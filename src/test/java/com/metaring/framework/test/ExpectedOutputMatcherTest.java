@@ -0,0 +1,223 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.metaring.framework.Tools;
+import com.metaring.framework.type.DataRepresentation;
+
+public class ExpectedOutputMatcherTest {
+
+    private static final String ERROR_MESSAGE_FORMAT = "Property: %s - Expecting %s - Found %s";
+
+    private static final String ANY = SpecialTypeEnum.ANY.print();
+    private static final String SOME = SpecialTypeEnum.SOME.print();
+    private static final String ARRAY_UNDEFINED_LENGTH = SpecialTypeEnum.ARRAY_UNDEFINED_LENGTH.print();
+    private static final String ARRAY_JUST_ONE_ELEMENT = SpecialTypeEnum.ARRAY_JUST_ONE_ELEMENT.print();
+    private static final String ARRAY_MORE_THAN_AN_ELEMENT = SpecialTypeEnum.ARRAY_MORE_THAN_AN_ELEMENT.print();
+
+    private static final List<String[]> CASES = Arrays.asList(
+            new String[] { "null", "null" },
+            new String[] { "null", "5" },
+            new String[] { "null", "[1,2]" },
+            new String[] { "null", "{\"a\":1}" },
+            new String[] { "5", "5" },
+            new String[] { "5", "6" },
+            new String[] { "\"text\"", "\"other\"" },
+            new String[] { "\"text\"", "null" },
+            new String[] { "true", "{\"a\":1}" },
+            new String[] { "[1,2,3]", "[1,2,3]" },
+            new String[] { "[1,2,3]", "[1,2]" },
+            new String[] { "[1,2,3]", "[1,5,4]" },
+            new String[] { "[1,2]", "{\"a\":1}" },
+            new String[] { "[1,2]", "null" },
+            new String[] { "[1,2]", "\"text\"" },
+            new String[] { "{\"a\":1,\"b\":[true]}", "{\"a\":1,\"b\":[true]}" },
+            new String[] { "{\"a\":1,\"b\":{\"c\":\"x\"}}", "{\"a\":2,\"b\":{\"c\":\"y\"}}" },
+            new String[] { "{\"a\":1,\"b\":2}", "{\"a\":1}" },
+            new String[] { "{\"a\":1}", "[1]" },
+            new String[] { "{\"a\":1}", "null" },
+            new String[] { "{\"a\":1}", "7" },
+            new String[] { "{\"a\":[{\"b\":1},{\"b\":2}]}", "{\"a\":[{\"b\":1},{\"b\":3}]}" },
+            new String[] { ANY, "null" },
+            new String[] { ANY, "{\"a\":1}" },
+            new String[] { ANY, "[1]" },
+            new String[] { SOME, "1" },
+            new String[] { SOME, "null" },
+            new String[] { SOME, "[1]" },
+            new String[] { ARRAY_UNDEFINED_LENGTH, "[]" },
+            new String[] { ARRAY_UNDEFINED_LENGTH, "null" },
+            new String[] { ARRAY_UNDEFINED_LENGTH, "{\"a\":1}" },
+            new String[] { ARRAY_UNDEFINED_LENGTH, "3" },
+            new String[] { ARRAY_JUST_ONE_ELEMENT, "[1]" },
+            new String[] { ARRAY_JUST_ONE_ELEMENT, "[1,2]" },
+            new String[] { ARRAY_MORE_THAN_AN_ELEMENT, "[1,2]" },
+            new String[] { ARRAY_MORE_THAN_AN_ELEMENT, "[1]" },
+            new String[] { "{\"a\":" + ANY + ",\"b\":[" + SOME + "," + ARRAY_JUST_ONE_ELEMENT + "]}", "{\"a\":[1],\"b\":[null,[]]}" },
+            new String[] { "[" + ANY + ",2]", "[1]" });
+
+    @Test
+    public void errorMessagesMatchLegacyVerification() {
+        for (String[] testCase : CASES) {
+            DataRepresentation expectedJson = json(testCase[0]);
+            DataRepresentation resultJson = json(testCase[1]);
+            List<String> legacyErrorMessages = new ArrayList<>();
+            legacyVerifyResult(legacyErrorMessages, "testOutput", expectedJson, resultJson);
+            assertEquals("Expected " + testCase[0] + " against result " + testCase[1], normalize(legacyErrorMessages), normalize(ExpectedOutputMatcher.compile(testCase[0]).verify(resultJson)));
+        }
+    }
+
+    @Test
+    public void reportsNestedPropertyPaths() {
+        assertEquals(Collections.singletonList("Property: testOutput.a[1].b - Expecting 2 - Found 3"), ExpectedOutputMatcher.compile("{\"a\":[{\"b\":1},{\"b\":2}]}").verify(json("{\"a\":[{\"b\":1},{\"b\":3}]}")));
+    }
+
+    @Test
+    public void reportsExpectedArraysWithSpecialTypeSymbols() {
+        assertEquals(Collections.singletonList("Property: testOutput - Expecting an array of size 2:\n\n[*,2]\n\n - Found an array of size 1:\n\n[1]\n\n"), ExpectedOutputMatcher.compile("[" + ANY + ",2]").verify(json("[1]")));
+    }
+
+    @Test
+    public void missingResultIsReportedAsNull() {
+        assertEquals(Collections.singletonList("Property: testOutput - Expecting a JSON object:\n\n{\"a\":1}\n\n - Found null value"), ExpectedOutputMatcher.compile("{\"a\":1}").verify(null));
+    }
+
+    @Test
+    public void matchingResultHasNoErrors() {
+        assertTrue(ExpectedOutputMatcher.compile("{\"a\":1,\"b\":[" + SOME + "]}").verify(json("{\"a\":1,\"b\":[\"x\"]}")).isEmpty());
+    }
+
+    @Test
+    public void cachedMatcherIsRecompiledWhenExpectedOutputChanges() {
+        ExpectedOutputMatcher first = ExpectedOutputMatcher.forTestCase(ExpectedOutputMatcherTest.class, "1");
+        assertTrue(first == ExpectedOutputMatcher.forTestCase(ExpectedOutputMatcherTest.class, new String("1")));
+        assertTrue(ExpectedOutputMatcher.forTestCase(ExpectedOutputMatcherTest.class, "2").verify(json("2")).isEmpty());
+    }
+
+    private static DataRepresentation json(String json) {
+        return Tools.FACTORY_DATA_REPRESENTATION.fromJson(json);
+    }
+
+    private static List<String> normalize(List<String> errorMessages) {
+        List<String> normalized = new ArrayList<>();
+        for (String errorMessage : errorMessages) {
+            normalized.add(errorMessage.replaceAll("\\s*([\\[\\]{},:])\\s*", "$1"));
+        }
+        return normalized;
+    }
+
+    private static void legacyVerifyResult(List<String> errorMessages, String propertyName, DataRepresentation expectedJson, DataRepresentation resultJson) {
+        if (expectedJson == null) {
+            expectedJson = json("null");
+        }
+        if (resultJson == null) {
+            resultJson = json("null");
+        }
+        if (expectedJson.isNull() && resultJson.isNull()) {
+            return;
+        }
+        if (expectedJson.isNull()) {
+            errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, "null value", resultJson.hasLength() ? ("an array of size " + resultJson.length() + ":\n\n" + resultJson.toString() + "\n\n") : resultJson.hasProperties() ? ("a JSON object:\n\n" + resultJson.toString() + "\n\n") : resultJson.toString()));
+            return;
+        }
+        SpecialTypeEnum specialType = null;
+        try {
+            specialType = SpecialTypeEnum.fromText(expectedJson.toJson());
+        }
+        catch (Exception e) {
+        }
+        if (specialType != null) {
+            if (specialType == SpecialTypeEnum.ANY) {
+                if (resultJson.hasLength()) {
+                    errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, SpecialTypeEnum.ANY.getText(), "an array of size " + resultJson.length() + ":\n\n" + resultJson.toString() + "\n\n"));
+                }
+                return;
+            }
+
+            if (specialType == SpecialTypeEnum.SOME) {
+                if (resultJson.isNull()) {
+                    errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, SpecialTypeEnum.SOME.getText(), "null value"));
+                }
+                else
+                    if (resultJson.hasLength()) {
+                        errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, SpecialTypeEnum.SOME.getText(), "an array of size " + resultJson.length() + ":\n\n" + resultJson.toString() + "\n\n"));
+                    }
+                return;
+            }
+
+            if (!resultJson.hasLength()) {
+                errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, specialType.getText(), resultJson.hasProperties() ? ("a JSON Object:\n\n" + resultJson.toString() + "\n\n") : resultJson.isNull() ? "null value" : resultJson.toString()));
+                return;
+            }
+
+            if (specialType == SpecialTypeEnum.ARRAY_UNDEFINED_LENGTH) {
+                return;
+            }
+            if (specialType == SpecialTypeEnum.ARRAY_JUST_ONE_ELEMENT && resultJson.length() != 1) {
+                errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, SpecialTypeEnum.ARRAY_JUST_ONE_ELEMENT.getText(), "an array of size " + resultJson.length() + ":\n\n" + resultJson.toJson() + "\n\n"));
+                return;
+            }
+
+            if (specialType == SpecialTypeEnum.ARRAY_MORE_THAN_AN_ELEMENT && !(resultJson.length() > 1)) {
+                errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, SpecialTypeEnum.ARRAY_MORE_THAN_AN_ELEMENT.getText(), "an array of size " + resultJson.length() + ":\n\n" + resultJson.toJson() + "\n\n"));
+                return;
+            }
+        }
+        else
+            if (expectedJson.hasLength()) {
+                if (!resultJson.hasLength()) {
+                    errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, "an array of size " + expectedJson.length() + ":\n\n" + SpecialTypeEnum.clean(expectedJson.toJson()) + "\n\n", resultJson.hasProperties() ? ("a JSON Object:\n\n" + resultJson.toString() + "\n\n") : resultJson.isNull() ? "null value" : resultJson.toJson()));
+                    return;
+                }
+                else {
+                    if (expectedJson.length() != resultJson.length()) {
+                        errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, "an array of size " + expectedJson.length() + ":\n\n" + SpecialTypeEnum.clean(expectedJson.toJson()) + "\n\n", "an array of size " + resultJson.length() + ":\n\n" + resultJson.toJson() + "\n\n"));
+                        return;
+                    }
+                    for (int i = 0; i < expectedJson.length(); i++) {
+                        legacyVerifyResult(errorMessages, propertyName + "[" + i + "]", expectedJson.get(i), resultJson.get(i));
+                    }
+                }
+            }
+            else
+                if (expectedJson.hasProperties()) {
+                    if (!resultJson.hasProperties()) {
+                        errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, "a JSON object:\n\n" + SpecialTypeEnum.clean(expectedJson.toJson()) + "\n\n", resultJson.hasLength() ? ("an array of size " + resultJson.length() + ":\n\n" + resultJson.toString() + "\n\n") : resultJson.isNull() ? "null value" : resultJson.toString()));
+                        return;
+                    }
+                    else {
+                        for (String expectedPropertyName : expectedJson.getProperties()) {
+                            legacyVerifyResult(errorMessages, propertyName + "." + expectedPropertyName, expectedJson.get(expectedPropertyName), resultJson.get(expectedPropertyName));
+                        }
+                    }
+                }
+                else
+                    if (!expectedJson.toJson().equals(resultJson.toJson())) {
+                        errorMessages.add(String.format(ERROR_MESSAGE_FORMAT, propertyName, expectedJson.toString(), resultJson.toString()));
+                    }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.metaring.framework.Tools;
+import com.metaring.framework.type.DataRepresentation;
+
+public class FunctionalityResultCacheTest {
+
+    private static final String FUNCTIONALITY = "com.metaring.test.cached";
+
+    @Before
+    public void clear() {
+        FunctionalityResultCache.clear();
+    }
+
+    @Test
+    public void matchesConfiguredFunctionalitiesAndTheirSubPackages() {
+        assertTrue(FunctionalityResultCache.isEnabled());
+        assertTrue(FunctionalityResultCache.isCacheable(FUNCTIONALITY));
+        assertTrue(FunctionalityResultCache.isCacheable(FUNCTIONALITY + ".read"));
+        assertFalse(FunctionalityResultCache.isCacheable(FUNCTIONALITY + "write"));
+        assertFalse(FunctionalityResultCache.isCacheable("com.metaring.test"));
+        assertFalse(FunctionalityResultCache.isCacheable(null));
+    }
+
+    @Test
+    public void equivalentParamsShareOneCall() {
+        AtomicInteger calls = new AtomicInteger();
+        long hits = FunctionalityResultCache.getHits();
+        DataRepresentation first = get("{\"a\":1,\"b\":[2,3]}", calls).join();
+        DataRepresentation second = get("{\"b\":[2,3],\"a\":1}", calls).join();
+        assertEquals(1, calls.get());
+        assertEquals(hits + 1, FunctionalityResultCache.getHits());
+        assertEquals(first.toJson(), second.toJson());
+        get("{\"a\":2,\"b\":[2,3]}", calls).join();
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void concurrentLookupsWaitForTheCallInFlight() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<DataRepresentation> pending = new CompletableFuture<>();
+        CompletableFuture<DataRepresentation> first = FunctionalityResultCache.get(FUNCTIONALITY, json("1"), () -> {
+            calls.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<DataRepresentation> second = get("1", calls);
+        assertFalse(second.isDone());
+        pending.complete(json("\"done\""));
+        assertEquals("\"done\"", first.join().toJson());
+        assertEquals("\"done\"", second.join().toJson());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void failedCallsAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<DataRepresentation> failed = FunctionalityResultCache.get(FUNCTIONALITY, json("1"), () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("unavailable");
+        });
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(0, FunctionalityResultCache.getSize());
+        get("1", calls).join();
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() {
+        AtomicInteger calls = new AtomicInteger();
+        long evictions = FunctionalityResultCache.getEvictions();
+        for (int i = 0; i < 5; i++) {
+            get(String.valueOf(i), calls).join();
+        }
+        assertEquals(4, FunctionalityResultCache.getSize());
+        assertEquals(evictions + 1, FunctionalityResultCache.getEvictions());
+        get("0", calls).join();
+        assertEquals(6, calls.get());
+    }
+
+    private static CompletableFuture<DataRepresentation> get(String param, AtomicInteger calls) {
+        return FunctionalityResultCache.get(FUNCTIONALITY, json(param), () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(json("{\"param\":" + param + "}"));
+        });
+    }
+
+    private static DataRepresentation json(String json) {
+        return Tools.FACTORY_DATA_REPRESENTATION.fromJson(json);
+    }
+}
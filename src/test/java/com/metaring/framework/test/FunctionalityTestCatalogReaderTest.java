@@ -0,0 +1,108 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FunctionalityTestCatalogReaderTest {
+
+    private static final String SAMPLE_CATALOG = "com/metaring/framework/test/sample-catalog.jsonl";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsClassPathCatalogSkippingBlankAndCommentLines() throws IOException {
+        List<FunctionalityTestCatalogReader.Entry> entries = read(SAMPLE_CATALOG);
+        assertEquals(2, entries.size());
+        assertEquals(SAMPLE_CATALOG + ":2", entries.get(0).getLocation());
+        assertEquals(SAMPLE_CATALOG + ":5", entries.get(1).getLocation());
+    }
+
+    @Test
+    public void entriesBecomeCasesWithTheirOwnIdentity() throws IOException {
+        List<FunctionalityTestCatalogReader.Entry> entries = read("/" + SAMPLE_CATALOG);
+        CatalogFunctionalityTestCase first = entries.get(0).toTestCase();
+        assertEquals("com.metaring.test.echo", first.getName());
+        assertEquals(Long.valueOf(1L), first.getId());
+        assertEquals("echo one", first.getTitle());
+        assertEquals("{\"value\":1}", first.getInputParam().replace(" ", ""));
+        assertEquals("com.metaring.test.echo#1", first.getCaseIdentity());
+        CatalogFunctionalityTestCase second = entries.get(1).toTestCase();
+        assertEquals("com.metaring.test.echo#2", second.getCaseIdentity());
+        assertNull(second.getTitle());
+        assertEquals("null", second.getExpectedOutput());
+    }
+
+    @Test
+    public void readsCatalogFromFileSystem() throws IOException {
+        File catalog = folder.newFile("catalog.jsonl");
+        Files.write(catalog.toPath(), Arrays.asList("   ", "{\"functionality\": \"com.metaring.test.file\"}", "  # done"), StandardCharsets.UTF_8);
+        List<FunctionalityTestCatalogReader.Entry> entries = read(catalog.getAbsolutePath());
+        assertEquals(1, entries.size());
+        assertEquals(catalog.getAbsolutePath() + ":2", entries.get(0).getLocation());
+        CatalogFunctionalityTestCase testCase = entries.get(0).toTestCase();
+        assertEquals("com.metaring.test.file#0", testCase.getCaseIdentity());
+    }
+
+    @Test
+    public void emptyCatalogHasNoEntries() throws IOException {
+        File catalog = folder.newFile("empty.jsonl");
+        try (FunctionalityTestCatalogReader reader = new FunctionalityTestCatalogReader(catalog.getAbsolutePath())) {
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void missingCatalogIsReported() throws IOException {
+        new FunctionalityTestCatalogReader(new File(folder.getRoot(), "missing.jsonl").getAbsolutePath());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void entryWithoutFunctionalityIsRejected() {
+        CatalogFunctionalityTestCase.parse("{\"id\": 1}");
+    }
+
+    @Test
+    public void unquotesJsonEscapes() {
+        assertEquals("a\"b\n\\c\u00e9", CatalogFunctionalityTestCase.unquote("\"a\\\"b\\n\\\\c\\u00e9\""));
+        assertEquals("x", CatalogFunctionalityTestCase.unquote("x"));
+    }
+
+    private static List<FunctionalityTestCatalogReader.Entry> read(String source) throws IOException {
+        List<FunctionalityTestCatalogReader.Entry> entries = new ArrayList<>();
+        try (FunctionalityTestCatalogReader reader = new FunctionalityTestCatalogReader(source)) {
+            reader.forEachRemaining(entries::add);
+        }
+        return entries;
+    }
+}
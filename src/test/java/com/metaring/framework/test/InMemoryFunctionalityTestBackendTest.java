@@ -0,0 +1,174 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.metaring.framework.Tools;
+import com.metaring.framework.type.DataRepresentation;
+
+public class InMemoryFunctionalityTestBackendTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:metaring-backend-test;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    private Connection connection;
+    private InMemoryFunctionalityTestBackend backend;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(JDBC_URL);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE entries (id INT PRIMARY KEY, text VARCHAR(32))");
+        }
+        backend = new InMemoryFunctionalityTestBackend(JDBC_URL);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE entries");
+        }
+        connection.close();
+    }
+
+    @Test
+    public void inlinedLiteralsMatchPreparedStatements() throws SQLException {
+        backend.update("INSERT INTO entries VALUES (1, ?)", Collections.<Object> singletonList("a\\b'c")).join();
+        backend.update(PersistenceStatement.inline("INSERT INTO entries VALUES (2, ?)", Collections.<Object> singletonList("a\\b'c"), backend.isBackslashEscapedInLiterals())).join();
+        assertEquals("a\\b'c", text(1));
+        assertEquals("a\\b'c", text(2));
+    }
+
+    @Test
+    public void batchCommitsAllEntries() throws SQLException {
+        backend.batch(Arrays.asList("INSERT INTO entries VALUES (1, 'one')", "INSERT INTO entries VALUES (2, 'two')")).join();
+        assertEquals("one", text(1));
+        assertEquals("two", text(2));
+    }
+
+    @Test
+    public void failingBatchReportsStatementIndexAndRollsBack() throws SQLException {
+        try {
+            backend.batch(Arrays.asList("INSERT INTO entries VALUES (1, 'one')", "INSERT INTO entries VALUES (2, 'two')", "INSERT INTO entries VALUES (1, 'duplicate')")).join();
+            fail("Batch with a duplicate key must fail");
+        }
+        catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof PersistenceBatchException);
+            assertEquals(2, ((PersistenceBatchException) e.getCause()).getStatementIndex());
+        }
+        assertEquals(0, count());
+        backend.update("INSERT INTO entries VALUES (1, 'one')").join();
+        assertEquals(1, count());
+    }
+
+    @Test
+    public void transactionScriptRunsAsOneUnit() throws SQLException {
+        backend.update(PersistenceScript.BEGIN_TRANSACTION + ";\nINSERT INTO entries VALUES (1, 'one');\nINSERT INTO entries VALUES (2, 'two');\n" + PersistenceScript.COMMIT_TRANSACTION).join();
+        assertEquals(2, count());
+    }
+
+    @Test
+    public void failingTransactionScriptLeavesNothingBehind() throws SQLException {
+        try {
+            backend.update(PersistenceScript.BEGIN_TRANSACTION + ";\nINSERT INTO entries VALUES (1, 'one');\nINSERT INTO entries VALUES (1, 'duplicate');\n" + PersistenceScript.COMMIT_TRANSACTION).join();
+            fail("Script with a duplicate key must fail");
+        }
+        catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof SQLException);
+        }
+        assertEquals(0, count());
+        backend.update("INSERT INTO entries VALUES (2, 'two')").join();
+        assertEquals(1, count());
+    }
+
+    @Test
+    public void rolledBackScriptIsDiscarded() throws SQLException {
+        backend.update(PersistenceScript.BEGIN_TRANSACTION + ";\nINSERT INTO entries VALUES (1, 'one');\n" + PersistenceScript.ROLLBACK_TRANSACTION).join();
+        assertEquals(0, count());
+    }
+
+    @Test
+    public void batchBindsEveryParameterRow() throws SQLException {
+        backend.batch(Collections.singletonList("{\"statement\": \"INSERT INTO entries VALUES (?, ?)\", \"parameters\": [[1, \"one\"], [2, null], [3, \"three\"]]}")).join();
+        assertEquals(3, count());
+        assertEquals("one", text(1));
+        assertEquals(null, text(2));
+        assertEquals("three", text(3));
+    }
+
+    @Test
+    public void queryRowsBecomeJsonObjects() {
+        backend.update("INSERT INTO entries VALUES (1, 'one')").join();
+        backend.update("INSERT INTO entries VALUES (2, NULL)").join();
+        DataRepresentation rows = backend.query("SELECT id, text, id > 1 AS later FROM entries ORDER BY id").join();
+        assertEquals(2L, (long) rows.length());
+        assertEquals("1", rows.get(0).get("ID").toJson());
+        assertEquals("one", rows.get(0).getText("TEXT"));
+        assertEquals("false", rows.get(0).get("LATER").toJson());
+        assertTrue(rows.get(1).get("TEXT").isNull());
+        assertEquals("true", rows.get(1).get("LATER").toJson());
+    }
+
+    @Test
+    public void parameterizedExistenceCheckAnswersYesOrNo() {
+        backend.update("INSERT INTO entries VALUES (1, 'one')").join();
+        assertEquals("YES", PersistenceStatement.existenceCheck(backend, "{\"statement\": \"SELECT 1 FROM entries WHERE text = ?\", \"parameters\": [\"one\"]}").join().first().getText(PersistenceScript.EXISTENCE_CHECK_ALIAS.toUpperCase()));
+        assertEquals("NO", PersistenceStatement.existenceCheck(backend, "{\"statement\": \"SELECT 1 FROM entries WHERE text = ?\", \"parameters\": [\"two\"]}").join().first().getText(PersistenceScript.EXISTENCE_CHECK_ALIAS.toUpperCase()));
+    }
+
+    @Test
+    public void callsAreDispatchedInProcess() {
+        InJvmFunctionalityDispatcher.register("com.metaring.test.backend.echo", param -> param);
+        try {
+            assertEquals("{\"a\":1}", backend.call(1L, "com.metaring.test.backend.echo", Tools.FACTORY_DATA_REPRESENTATION.fromJson("{\"a\": 1}")).join().toJson().replace(" ", ""));
+            assertTrue(backend.call(1L, "com.metaring.test.backend.missing", null).isCompletedExceptionally());
+        }
+        finally {
+            InJvmFunctionalityDispatcher.unregister("com.metaring.test.backend.echo");
+        }
+    }
+
+    private int count() throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM entries")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private String text(int id) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("SELECT text FROM entries WHERE id = " + id)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(0, histogram.getMean(), 0);
+    }
+
+    @Test
+    public void linearRangeIsExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        assertEquals(100, histogram.getTotalCount());
+        assertEquals(1, histogram.getValueAtPercentile(0));
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(90, histogram.getValueAtPercentile(90));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+        assertEquals(50.5, histogram.getMean(), 0);
+    }
+
+    @Test
+    public void largeValuesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1_000);
+        }
+        assertWithinPrecision(5_000_000, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(9_900_000, histogram.getValueAtPercentile(99));
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+        assertEquals(10_000_000, histogram.getMaxValue());
+    }
+
+    @Test
+    public void percentileNeverExceedsMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_001);
+        assertEquals(1_000_001, histogram.getValueAtPercentile(50));
+        assertEquals(1_000_001, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void negativeValuesAreRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getTotalCount());
+        assertEquals(0, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void bucketsCoverTheirValues() {
+        for (long value : new long[] { 0, 127, 128, 129, 1_000, 65_535, 1L << 40, Long.MAX_VALUE }) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(value + " above its bucket", value <= LatencyHistogram.highestEquivalentValue(index));
+            assertTrue(value + " below its bucket", index == 0 || value > LatencyHistogram.highestEquivalentValue(index - 1));
+        }
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue("Expected about " + expected + " but was " + actual, Math.abs(actual - expected) <= expected / 64);
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.metaring.framework.type.DataRepresentation;
+
+public class PendingCallsFunctionalityTestBackend extends InMemoryFunctionalityTestBackend {
+
+    static final String PENDING_PREFIX = "pending.";
+
+    private static final Map<String, CompletableFuture<DataRepresentation>> PENDING_CALLS = new ConcurrentHashMap<>();
+
+    public PendingCallsFunctionalityTestBackend() throws SQLException {
+        super();
+    }
+
+    static CompletableFuture<DataRepresentation> getPendingCall(String name) {
+        return PENDING_CALLS.get(name);
+    }
+
+    @Override
+    public CompletableFuture<DataRepresentation> call(Long id, String name, DataRepresentation param) {
+        if (!name.startsWith(PENDING_PREFIX)) {
+            return super.call(id, name, param);
+        }
+        CompletableFuture<DataRepresentation> call = new CompletableFuture<>();
+        PENDING_CALLS.put(name, call);
+        return call;
+    }
+}
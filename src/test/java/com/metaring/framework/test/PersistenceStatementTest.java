@@ -0,0 +1,69 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class PersistenceStatementTest {
+
+    @Test
+    public void inlinesLiteralsByType() {
+        assertEquals("INSERT INTO t VALUES (1, 2.50, TRUE, NULL, 'text')", PersistenceStatement.inline("INSERT INTO t VALUES (?, ?, ?, ?, ?)", Arrays.asList(1L, new BigDecimal("2.50"), true, null, "text")));
+    }
+
+    @Test
+    public void escapesQuotesAndBackslashes() {
+        assertEquals("SELECT 'it''s', 'C:\\\\tmp'", PersistenceStatement.inline("SELECT ?, ?", Arrays.<Object> asList("it's", "C:\\tmp")));
+    }
+
+    @Test
+    public void leavesQuotedPlaceholdersAlone() {
+        assertEquals("SELECT '?', 7", PersistenceStatement.inline("SELECT '?', ?", Collections.<Object> singletonList(7)));
+    }
+
+    @Test
+    public void skipsEscapedQuotesInsideLiterals() {
+        assertEquals("SELECT 'a\\'?', 7", PersistenceStatement.inline("SELECT 'a\\'?', ?", Collections.<Object> singletonList(7)));
+    }
+
+    @Test
+    public void templateWithoutParametersIsUnchanged() {
+        assertEquals("DELETE FROM t", PersistenceStatement.inline("DELETE FROM t", Collections.emptyList()));
+    }
+
+    @Test
+    public void jdbcEscapeSyntaxIsNotParameterized() {
+        assertEquals("{call reset_fixture()}", PersistenceStatement.inline("{call reset_fixture()}"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingParameters() {
+        PersistenceStatement.inline("SELECT ?, ?", Collections.<Object> singletonList(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsExtraParameters() {
+        PersistenceStatement.inline("SELECT ?", Arrays.<Object> asList(1, 2));
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.metaring.framework.Tools;
+
+public class RunAsyncTimeoutTest {
+
+    private static final String UNREACHABLE_EPILOGUE = "SELECT 1 FROM DUAL WHERE 1 = 0";
+
+    @Test
+    public void phaseTimeoutCancelsPendingCallAndSkipsEpilogue() throws Exception {
+        TestOutcome outcome = new PendingTestCase("pending.phase", 100, 0, UNREACHABLE_EPILOGUE).runAsync().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertFalse(outcome.isSuccessful());
+        assertEquals(1, outcome.getErrorMessages().size());
+        assertTrue(outcome.getErrorMessages().get(0), outcome.getErrorMessages().get(0).contains("Phase CALL timed out after 100 ms"));
+        assertTrue(PendingCallsFunctionalityTestBackend.getPendingCall("pending.phase").isCancelled());
+    }
+
+    @Test
+    public void caseTimeoutReportsCurrentPhase() throws Exception {
+        TestOutcome outcome = new PendingTestCase("pending.case", 0, 100, UNREACHABLE_EPILOGUE).runAsync().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertFalse(outcome.isSuccessful());
+        assertEquals(Collections.singletonList("Test Case execution returned the following error:\n\nTest Case timed out after 100 ms while in phase CALL"), outcome.getErrorMessages());
+        assertTrue(PendingCallsFunctionalityTestBackend.getPendingCall("pending.case").isCancelled());
+    }
+
+    @Test
+    public void callCompletingInTimeIsAsserted() throws Exception {
+        CompletableFuture<TestOutcome> outcome = new PendingTestCase("pending.completed", 5000, 5000, "SELECT 1 FROM DUAL").runAsync().toCompletableFuture();
+        PendingCallsFunctionalityTestBackend.getPendingCall("pending.completed").complete(Tools.FACTORY_DATA_REPRESENTATION.fromJson("1"));
+        assertTrue(outcome.get(10, TimeUnit.SECONDS).getErrorMessages().toString(), outcome.get().isSuccessful());
+    }
+
+    @Test
+    public void timeoutCompletesOffTheSchedulerThread() throws Exception {
+        AtomicReference<String> completingThread = new AtomicReference<>();
+        CompletableFuture<Object> source = new CompletableFuture<>();
+        CompletableFuture<Object> timed = Timeouts.within(source, 50, () -> Timeouts.phaseTimeout(TestPhase.CALL, 50));
+        CompletableFuture<Object> observed = timed.whenComplete((result, error) -> completingThread.set(Thread.currentThread().getName()));
+        try {
+            observed.get(10, TimeUnit.SECONDS);
+        }
+        catch (Exception e) {
+            assertTrue(Timeouts.unwrap(e) instanceof TestTimeoutException);
+        }
+        assertTrue(source.isCancelled());
+        assertEquals("metaring-test-timeouts-completion", completingThread.get());
+    }
+
+    @Test
+    public void sourceCompletingFirstIsPassedThrough() throws Exception {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture<String> timed = Timeouts.within(source, 5000, () -> Timeouts.phaseTimeout(TestPhase.CALL, 5000));
+        source.complete("done");
+        assertEquals("done", timed.get(1, TimeUnit.SECONDS));
+    }
+
+    static final class PendingTestCase extends AbstractFunctionalityTestCase {
+
+        private final long phaseTimeoutMillis;
+        private final long caseTimeoutMillis;
+
+        PendingTestCase(String name, long phaseTimeoutMillis, long caseTimeoutMillis, String epilogueVerification) {
+            super(name, 1L, name, null, "null", "1", Collections.<String> emptyList(), Collections.singletonList(epilogueVerification));
+            this.phaseTimeoutMillis = phaseTimeoutMillis;
+            this.caseTimeoutMillis = caseTimeoutMillis;
+        }
+
+        @Override
+        protected long getPhaseTimeoutMillis() {
+            return phaseTimeoutMillis;
+        }
+
+        @Override
+        protected long getCaseTimeoutMillis() {
+            return caseTimeoutMillis;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestBatterySchedulerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Collection<Class<? extends AbstractFunctionalityTestCase>> testCaseClasses = Arrays.asList(Fast.class, Medium.class, Slow.class, Slowest.class, Unknown.class);
+
+    @Test
+    public void singleShardRunsLongestFirst() throws IOException {
+        List<Class<? extends AbstractFunctionalityTestCase>> scheduled = TestBatteryScheduler.schedule(testCaseClasses, index(), 0, 1);
+        assertEquals(Arrays.asList(Slowest.class, Slow.class, Unknown.class, Medium.class, Fast.class), scheduled);
+    }
+
+    @Test
+    public void withoutHistoryOrdersByClassName() {
+        List<Class<? extends AbstractFunctionalityTestCase>> scheduled = TestBatteryScheduler.schedule(testCaseClasses, TestRunIndex.load(new File(folder.getRoot(), "missing.tsv")), 0, 1);
+        assertEquals(Arrays.asList(Fast.class, Medium.class, Slow.class, Slowest.class, Unknown.class), scheduled);
+    }
+
+    @Test
+    public void shardsPartitionTheBattery() throws IOException {
+        TestRunIndex index = index();
+        Set<Class<? extends AbstractFunctionalityTestCase>> all = new HashSet<>();
+        int total = 0;
+        for (int shard = 0; shard < 3; shard++) {
+            List<Class<? extends AbstractFunctionalityTestCase>> scheduled = TestBatteryScheduler.schedule(testCaseClasses, index, shard, 3);
+            all.addAll(scheduled);
+            total += scheduled.size();
+        }
+        assertEquals(testCaseClasses.size(), total);
+        assertEquals(new HashSet<>(testCaseClasses), all);
+    }
+
+    @Test
+    public void shardsAreBalancedByDuration() throws IOException {
+        TestRunIndex index = index();
+        assertEquals(Arrays.asList(Slowest.class, Medium.class), TestBatteryScheduler.schedule(testCaseClasses, index, 0, 2));
+        assertEquals(Arrays.asList(Slow.class, Unknown.class, Fast.class), TestBatteryScheduler.schedule(testCaseClasses, index, 1, 2));
+    }
+
+    @Test
+    public void moreShardsThanCasesLeavesSomeEmpty() throws IOException {
+        TestRunIndex index = index();
+        List<Class<? extends AbstractFunctionalityTestCase>> scheduled = new ArrayList<>();
+        for (int shard = 0; shard < 8; shard++) {
+            List<Class<? extends AbstractFunctionalityTestCase>> shardClasses = TestBatteryScheduler.schedule(testCaseClasses, index, shard, 8);
+            assertTrue(shardClasses.size() <= 1);
+            scheduled.addAll(shardClasses);
+        }
+        assertEquals(testCaseClasses.size(), scheduled.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsShardOutOfRange() throws IOException {
+        TestBatteryScheduler.schedule(testCaseClasses, index(), 2, 2);
+    }
+
+    private TestRunIndex index() throws IOException {
+        File file = folder.newFile("test-run-index.tsv");
+        List<String> lines = Arrays.asList(
+                "key\tclass\tfunctionality\tid\tsuccessful\tduration_ns\tinput_hash\texpected_hash",
+                entry(Fast.class, 1, 10),
+                entry(Medium.class, 1, 20),
+                entry(Medium.class, 2, 20),
+                entry(Slow.class, 1, 50),
+                entry(Slowest.class, 1, 100));
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+        return TestRunIndex.load(file);
+    }
+
+    private static String entry(Class<?> testCaseClass, long id, long durationNanos) {
+        return testCaseClass.getName() + "#" + id + "\t" + testCaseClass.getName() + "\tfunctionality\t" + id + "\ttrue\t" + durationNanos + "\t\t";
+    }
+
+    static final class Fast extends TestCase {
+    }
+
+    static final class Medium extends TestCase {
+    }
+
+    static final class Slow extends TestCase {
+    }
+
+    static final class Slowest extends TestCase {
+    }
+
+    static final class Unknown extends TestCase {
+    }
+
+    abstract static class TestCase extends AbstractFunctionalityTestCase {
+
+        TestCase() {
+            super(null, null, null, null, null, null);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ *    Copyright 2019 MetaRing s.r.l.
+ * 
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ * 
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.metaring.framework.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestRunIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final List<Class<? extends AbstractFunctionalityTestCase>> CASES = Arrays.asList(FirstCase.class, SecondCase.class, ThirdCase.class);
+
+    @Test
+    public void savedIndexLoadsBackTheSameEntries() throws Exception {
+        File file = new File(folder.getRoot(), "reports/run-index.tsv");
+        TestRunIndex index = recordedIndex();
+        index.save(file);
+        TestRunIndex loaded = TestRunIndex.load(file);
+        assertEquals(index.getEntries().size(), loaded.getEntries().size());
+        TestRunIndex.Entry first = loaded.get(FirstCase.class, 1L);
+        assertEquals(FirstCase.class.getName(), first.getClassName());
+        assertEquals("com.metaring.test.first", first.getName());
+        assertEquals(Long.valueOf(1L), first.getId());
+        assertTrue(first.isSuccessful());
+        assertEquals(5_000_000L, first.getDurationNanos());
+        TestRunIndex.Entry second = loaded.get(SecondCase.class, 2L);
+        assertFalse(second.isSuccessful());
+        assertEquals(50_000_000L, second.getDurationNanos());
+        assertNull(loaded.get(ThirdCase.class, 3L));
+    }
+
+    @Test
+    public void missingIndexLoadsEmpty() {
+        assertTrue(TestRunIndex.load(new File(folder.getRoot(), "missing.tsv")).getEntries().isEmpty());
+    }
+
+    @Test
+    public void selectsFailedCases() {
+        assertEquals(Collections.singletonList(SecondCase.class), recordedIndex().select(CASES, TestSelection.FAILED, Collections.emptySet()));
+    }
+
+    @Test
+    public void selectsChangedAndUnrecordedCases() {
+        TestRunIndex index = TestRunIndex.load(new File(folder.getRoot(), "missing.tsv"));
+        index.record(outcome(FirstCase.class, FirstCase.class.getName(), "com.metaring.test.first", 1L, 5, true), new FirstCase().getInputParam(), new FirstCase().getExpectedOutput());
+        index.record(outcome(SecondCase.class, SecondCase.class.getName(), "com.metaring.test.second", 2L, 50, true), "{\"previous\":true}", new SecondCase().getExpectedOutput());
+        assertEquals(Arrays.asList(SecondCase.class, ThirdCase.class), index.select(CASES, TestSelection.CHANGED, Collections.emptySet()));
+        assertEquals(CASES, index.select(CASES, TestSelection.CHANGED, Collections.singleton("com.metaring.test")));
+    }
+
+    @Test
+    public void ordersSlowestFirstWithUnrecordedCasesAhead() {
+        assertEquals(Arrays.asList(ThirdCase.class, SecondCase.class, FirstCase.class), recordedIndex().select(CASES, TestSelection.SLOWEST_FIRST, Collections.emptySet()));
+    }
+
+    @Test
+    public void casesSharingAClassAreKeyedByTheirOwnIdentity() {
+        TestRunIndex index = TestRunIndex.load(new File(folder.getRoot(), "missing.tsv"));
+        index.record(outcome(FirstCase.class, "com.metaring.test.read", "com.metaring.test.read", 1L, 5, true), "{}", "1");
+        index.record(outcome(FirstCase.class, "com.metaring.test.write", "com.metaring.test.write", 1L, 5, false), "{}", "1");
+        assertEquals(2, index.getEntries().size());
+        assertTrue(index.get(TestOutcome.identity("com.metaring.test.read", 1L)).isSuccessful());
+        assertFalse(index.get(TestOutcome.identity("com.metaring.test.write", 1L)).isSuccessful());
+    }
+
+    private static TestRunIndex recordedIndex() {
+        TestRunIndex index = TestRunIndex.load(new File("missing-run-index.tsv"));
+        FirstCase first = new FirstCase();
+        SecondCase second = new SecondCase();
+        index.record(outcome(FirstCase.class, FirstCase.class.getName(), first.getName(), 1L, 5, true), first.getInputParam(), first.getExpectedOutput());
+        index.record(outcome(SecondCase.class, SecondCase.class.getName(), second.getName(), 2L, 50, false), second.getInputParam(), second.getExpectedOutput());
+        return index;
+    }
+
+    private static TestOutcome outcome(Class<? extends AbstractFunctionalityTestCase> testCaseClass, String caseGroup, String name, Long id, long callMillis, boolean successful) {
+        PhaseTimings timings = new PhaseTimings();
+        timings.record(TestPhase.CALL, callMillis * 1_000_000L);
+        return new TestOutcome(testCaseClass, caseGroup, name, id, null, null, successful ? Collections.<String> emptyList() : Collections.singletonList("failed"), timings);
+    }
+
+    public static class FirstCase extends AbstractFunctionalityTestCase {
+
+        public FirstCase() {
+            super("com.metaring.test.first", 1L, "first", null, "{\"a\":1}", "1", Collections.<String> emptyList(), Collections.<String> emptyList());
+        }
+    }
+
+    public static class SecondCase extends AbstractFunctionalityTestCase {
+
+        public SecondCase() {
+            super("com.metaring.test.second", 2L, "second", null, "{\"b\":2}", "2", Collections.<String> emptyList(), Collections.<String> emptyList());
+        }
+    }
+
+    public static class ThirdCase extends AbstractFunctionalityTestCase {
+
+        public ThirdCase() {
+            super("com.metaring.test.third", 3L, "third", null, "{}", "3", Collections.<String> emptyList(), Collections.<String> emptyList());
+        }
+    }
+}